@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.batch;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeHintType;
+
+/**
+ * Decodes every image under the given paths from the command line, printing one line per file:
+ * the path, then the format and text of the barcode, or "-" and why none was decoded, or "!" and
+ * why the file could not be read. Fields are separated by tabs; tabs and line breaks in the text
+ * are escaped. A summary goes to standard error.
+ *
+ * <pre>
+ * java com.feng.qrcode.batch.BatchDecode [--threads 8] [--ordered] [--try-harder]
+ *     [--formats QR_CODE,EAN_13] PATH...
+ * </pre>
+ *
+ * A path of "-" reads further paths from standard input, one per line.
+ */
+public final class BatchDecode {
+
+  private BatchDecode() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    int threads = 0;
+    boolean ordered = false;
+    boolean readStdin = false;
+    Map<DecodeHintType,Object> hints = new EnumMap<DecodeHintType,Object>(DecodeHintType.class);
+    List<String> paths = new ArrayList<String>();
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if ("--threads".equals(arg) && i + 1 < args.length) {
+        threads = Integer.parseInt(args[++i]);
+      } else if ("--ordered".equals(arg)) {
+        ordered = true;
+      } else if ("--try-harder".equals(arg)) {
+        hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+      } else if ("--formats".equals(arg) && i + 1 < args.length) {
+        Collection<BarcodeFormat> formats = EnumSet.noneOf(BarcodeFormat.class);
+        for (String format : args[++i].split(",")) {
+          formats.add(BarcodeFormat.valueOf(format.trim()));
+        }
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, formats);
+      } else if ("-".equals(arg)) {
+        readStdin = true;
+      } else if (arg.startsWith("--")) {
+        usage();
+        return;
+      } else {
+        paths.add(arg);
+      }
+    }
+    if (paths.isEmpty() && !readStdin) {
+      usage();
+      return;
+    }
+
+    BufferedReader pathReader = readStdin ? new BufferedReader(new InputStreamReader(System.in, "UTF-8")) : null;
+    BatchDecoder decoder = new BatchDecoder(hints.isEmpty() ? null : hints, threads);
+    Printer printer = new Printer(System.out);
+    long start = System.nanoTime();
+    decoder.decodeAll(new ImageFiles(paths, pathReader), ordered, printer);
+    System.out.flush();
+    double seconds = (System.nanoTime() - start) / 1.0e9;
+    System.err.println(String.format("%d files, %d decoded, %d not decoded, %d unreadable, " +
+                                     "in %.1f s on %d threads: %.1f files/s",
+                                     printer.files, printer.decoded, printer.failed, printer.unreadable,
+                                     seconds, decoder.getThreads(), printer.files / seconds));
+  }
+
+  private static void usage() {
+    System.err.println("Usage: BatchDecode [--threads N] [--ordered] [--try-harder] " +
+                       "[--formats FORMAT,...] PATH... (- reads paths from standard input)");
+  }
+
+  private static final class Printer implements BatchResultListener {
+
+    private final PrintStream out;
+    private final StringBuilder line;
+    int files;
+    int decoded;
+    int failed;
+    int unreadable;
+
+    Printer(PrintStream out) {
+      this.out = out;
+      line = new StringBuilder();
+    }
+
+    @Override
+    public void onResult(BatchResult result) {
+      files++;
+      line.setLength(0);
+      line.append(result.getFile().getPath()).append('\t');
+      if (result.isSuccess()) {
+        decoded++;
+        line.append(result.getResult().getBarcodeFormat()).append('\t');
+        escape(result.getResult().getText(), line);
+      } else if (result.getFailure() != null) {
+        failed++;
+        line.append("-\t").append(result.getFailure());
+      } else {
+        unreadable++;
+        line.append("!\t");
+        escape(result.getError(), line);
+      }
+      out.println(line);
+    }
+
+    private static void escape(String text, StringBuilder out) {
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        switch (c) {
+          case '\t':
+            out.append("\\t");
+            break;
+          case '\n':
+            out.append("\\n");
+            break;
+          case '\r':
+            out.append("\\r");
+            break;
+          case '\\':
+            out.append("\\\\");
+            break;
+          default:
+            out.append(c);
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.batch;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.imageio.ImageIO;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.common.BinarizerWorkspace;
+import com.google.zxing.common.HybridBinarizer;
+
+/**
+ * Decodes image files in bulk, on a fixed pool of worker threads. Each worker keeps its own
+ * {@link MultiFormatReader} and binarizer workspace from one file to the next. Only a bounded
+ * number of files is in flight at once, so any number of files can be streamed through without
+ * holding them all in memory; results are handed back in input order or as they complete.
+ * Large photos are binarized in bands on a shared pool, so that a few big files at the end of a
+ * batch, or a single file decoded with {@link #decode(File)}, still use every core.
+ */
+public final class BatchDecoder {
+
+  // Files queued per worker, enough to keep every worker busy while results are handed back
+  private static final int FILES_IN_FLIGHT_PER_THREAD = 4;
+
+  private final Map<DecodeHintType,?> hints;
+  private final int threads;
+  private final ExecutorService bandExecutor;
+  private final ThreadLocal<Worker> workers;
+
+  /**
+   * @param hints hints for every decode, or null
+   * @param threads number of worker threads; 0 or less means one per available processor
+   */
+  public BatchDecoder(Map<DecodeHintType,?> hints, int threads) {
+    this.hints = hints;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    // Separate from the file workers, which would deadlock waiting on bands queued behind them.
+    // Band tasks never block, and daemon threads let the pool be dropped with the decoder.
+    bandExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "BatchDecoder band");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    workers = new ThreadLocal<Worker>() {
+      @Override
+      protected Worker initialValue() {
+        return new Worker(BatchDecoder.this.hints, bandExecutor);
+      }
+    };
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Decodes every file, returning once all are done.
+   *
+   * @param files the image files, read lazily
+   * @param ordered whether to hand back results in the order of the files, rather than as they
+   *  complete
+   * @param listener receives each result on the calling thread
+   * @throws InterruptedException if interrupted while waiting for a result; the files still in
+   *  flight are abandoned
+   */
+  public void decodeAll(Iterator<File> files, boolean ordered, BatchResultListener listener)
+      throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      if (ordered) {
+        decodeInOrder(executor, files, listener);
+      } else {
+        decodeAsCompleted(executor, files, listener);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Decodes one file on the calling thread.
+   */
+  public BatchResult decode(File file) {
+    return workers.get().decode(file);
+  }
+
+  private void decodeInOrder(ExecutorService executor, Iterator<File> files, BatchResultListener listener)
+      throws InterruptedException {
+    int maxInFlight = threads * FILES_IN_FLIGHT_PER_THREAD;
+    Deque<Future<BatchResult>> pending = new ArrayDeque<Future<BatchResult>>(maxInFlight);
+    while (files.hasNext()) {
+      if (pending.size() == maxInFlight) {
+        listener.onResult(get(pending.removeFirst()));
+      }
+      pending.addLast(executor.submit(newTask(files.next())));
+    }
+    while (!pending.isEmpty()) {
+      listener.onResult(get(pending.removeFirst()));
+    }
+  }
+
+  private void decodeAsCompleted(ExecutorService executor, Iterator<File> files, BatchResultListener listener)
+      throws InterruptedException {
+    int maxInFlight = threads * FILES_IN_FLIGHT_PER_THREAD;
+    CompletionService<BatchResult> completed = new ExecutorCompletionService<BatchResult>(executor);
+    int inFlight = 0;
+    while (files.hasNext()) {
+      if (inFlight == maxInFlight) {
+        listener.onResult(get(completed.take()));
+        inFlight--;
+      }
+      completed.submit(newTask(files.next()));
+      inFlight++;
+    }
+    for (; inFlight > 0; inFlight--) {
+      listener.onResult(get(completed.take()));
+    }
+  }
+
+  private Callable<BatchResult> newTask(final File file) {
+    return new Callable<BatchResult>() {
+      @Override
+      public BatchResult call() {
+        return decode(file);
+      }
+    };
+  }
+
+  private static BatchResult get(Future<BatchResult> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException ee) {
+      // Tasks turn every exception into a result, so this can only be an Error
+      Throwable cause = ee.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  /**
+   * The decoding state of one worker thread.
+   */
+  private static final class Worker {
+
+    private final MultiFormatReader reader;
+    private final BinarizerWorkspace workspace;
+    private final ExecutorService bandExecutor;
+
+    Worker(Map<DecodeHintType,?> hints, ExecutorService bandExecutor) {
+      reader = new MultiFormatReader();
+      reader.setHints(hints);
+      workspace = new BinarizerWorkspace();
+      this.bandExecutor = bandExecutor;
+    }
+
+    BatchResult decode(File file) {
+      long start = System.nanoTime();
+      BufferedImage image;
+      try {
+        image = ImageIO.read(file);
+      } catch (IOException ioe) {
+        return BatchResult.error(file, String.valueOf(ioe.getMessage()), System.nanoTime() - start);
+      } catch (RuntimeException re) {
+        // Some image readers throw these on corrupt files
+        return BatchResult.error(file, re.toString(), System.nanoTime() - start);
+      }
+      if (image == null) {
+        return BatchResult.error(file, "Not a supported image", System.nanoTime() - start);
+      }
+
+      int width = image.getWidth();
+      int height = image.getHeight();
+      int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+      RGBLuminanceSource source = new RGBLuminanceSource(width, height, pixels);
+      BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source, workspace, bandExecutor));
+      DecodeOutcome outcome;
+      try {
+        outcome = reader.tryDecodeWithState(bitmap);
+      } catch (RuntimeException re) {
+        return BatchResult.error(file, re.toString(), System.nanoTime() - start);
+      } finally {
+        reader.reset();
+      }
+      long nanos = System.nanoTime() - start;
+      if (outcome.isSuccess()) {
+        return BatchResult.success(file, outcome.getResult(), nanos);
+      }
+      return BatchResult.failure(file, outcome.getFailure(), nanos);
+    }
+
+  }
+
+}
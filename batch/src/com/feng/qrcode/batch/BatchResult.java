@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.batch;
+
+import java.io.File;
+
+import com.google.zxing.DecodeFailure;
+import com.google.zxing.Result;
+
+/**
+ * What decoding one image file gave: a barcode, the reason none was decoded, or the error which
+ * kept the file from being read as an image at all.
+ */
+public final class BatchResult {
+
+  private final File file;
+  private final Result result;
+  private final DecodeFailure failure;
+  private final String error;
+  private final long nanos;
+
+  private BatchResult(File file, Result result, DecodeFailure failure, String error, long nanos) {
+    this.file = file;
+    this.result = result;
+    this.failure = failure;
+    this.error = error;
+    this.nanos = nanos;
+  }
+
+  static BatchResult success(File file, Result result, long nanos) {
+    return new BatchResult(file, result, null, null, nanos);
+  }
+
+  static BatchResult failure(File file, DecodeFailure failure, long nanos) {
+    return new BatchResult(file, null, failure, null, nanos);
+  }
+
+  static BatchResult error(File file, String error, long nanos) {
+    return new BatchResult(file, null, null, error, nanos);
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * @return true if a barcode was decoded
+   */
+  public boolean isSuccess() {
+    return result != null;
+  }
+
+  /**
+   * @return the decoded barcode, or null if there is none
+   */
+  public Result getResult() {
+    return result;
+  }
+
+  /**
+   * @return why no barcode was decoded from the image, or null if one was, or the file could not
+   *  be read
+   */
+  public DecodeFailure getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return why the file could not be read as an image, or null if it was
+   */
+  public String getError() {
+    return error;
+  }
+
+  /**
+   * @return time taken to read and decode the file, in nanoseconds
+   */
+  public long getNanos() {
+    return nanos;
+  }
+
+}
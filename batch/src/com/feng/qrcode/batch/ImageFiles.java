@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the image files under a list of paths, lazily, so that directories with millions of
+ * images can be streamed. A directory yields every image below it, recursively and sorted by
+ * name; a file yields itself, whatever its name. The paths may also be read one per line from a
+ * reader, such as standard input.
+ */
+final class ImageFiles implements Iterator<File> {
+
+  private static final List<String> IMAGE_EXTENSIONS =
+      Arrays.asList("png", "jpg", "jpeg", "gif", "bmp", "tif", "tiff");
+
+  private final Iterator<String> paths;
+  private final BufferedReader pathReader;
+  // Files and directories still to visit, in order
+  private final Deque<File> pending;
+  private File next;
+
+  /**
+   * @param paths files and directories to walk
+   * @param pathReader more paths to walk afterwards, one per line, or null
+   */
+  ImageFiles(List<String> paths, BufferedReader pathReader) {
+    this.paths = paths.iterator();
+    this.pathReader = pathReader;
+    pending = new ArrayDeque<File>();
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = findNext();
+    }
+    return next != null;
+  }
+
+  @Override
+  public File next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    File result = next;
+    next = null;
+    return result;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  private File findNext() {
+    while (true) {
+      File file = pending.pollFirst();
+      if (file == null) {
+        String path = nextPath();
+        if (path == null) {
+          return null;
+        }
+        file = new File(path);
+        if (!file.isDirectory()) {
+          // Named explicitly, so try it whatever its name
+          return file;
+        }
+      }
+      if (file.isDirectory()) {
+        File[] children = file.listFiles();
+        if (children != null) {
+          Arrays.sort(children);
+          // Depth first, keeping the sorted order
+          for (int i = children.length - 1; i >= 0; i--) {
+            pending.addFirst(children[i]);
+          }
+        }
+      } else if (isImage(file)) {
+        return file;
+      }
+    }
+  }
+
+  private String nextPath() {
+    if (paths.hasNext()) {
+      return paths.next();
+    }
+    if (pathReader == null) {
+      return null;
+    }
+    try {
+      String line;
+      do {
+        line = pathReader.readLine();
+      } while (line != null && line.trim().isEmpty());
+      return line == null ? null : line.trim();
+    } catch (IOException ioe) {
+      throw new IllegalStateException("Could not read paths", ioe);
+    }
+  }
+
+  private static boolean isImage(File file) {
+    String name = file.getName();
+    int dot = name.lastIndexOf('.');
+    return dot >= 0 && IMAGE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+  }
+
+}
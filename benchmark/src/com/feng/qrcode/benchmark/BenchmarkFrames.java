@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixWriter;
+import com.google.zxing.oned.Code128Writer;
+import com.google.zxing.oned.EAN13Writer;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+
+/**
+ * The frames the benchmark decodes: synthetic NV21 preview frames, rendered the way a camera
+ * would see a printed barcode, and optionally frames recorded from a real device.
+ */
+final class BenchmarkFrames {
+
+  private static final int QUIET_ZONE = 4;
+  private static final int DARK = 30;
+  private static final int LIGHT = 220;
+  private static final int NOISE = 12;
+  // Random texts tried for each QR code before settling for one whose frame does not decode
+  private static final int QR_CONTENT_ATTEMPTS = 16;
+  // Height in modules of 1D symbols, which the writers otherwise make a single module tall
+  private static final int ONE_D_HEIGHT = 60;
+  // Recorded frames are raw NV21 dumps named like "label_640x480.nv21"
+  private static final Pattern RECORDED_NAME = Pattern.compile("(.*)_(\\d+)x(\\d+)\\.(nv21|yuv)");
+  // Dumps of the scanner's FlightRecorder
+  private static final int RECORDING_MAGIC = 0x51524652;
+  private static final int RECORDING_VERSION = 1;
+  private static final String[] RECORDING_OUTCOMES = {"low-quality", "not-found", "checksum", "format"};
+
+  /**
+   * One preview frame, and the text it should decode to, or null if it contains no barcode or
+   * the contents are unknown.
+   */
+  static final class Frame {
+    final String name;
+    final byte[] data;
+    final int width;
+    final int height;
+    final String expected;
+
+    Frame(String name, byte[] data, int width, int height, String expected) {
+      this.name = name;
+      this.data = data;
+      this.width = width;
+      this.height = height;
+      this.expected = expected;
+    }
+  }
+
+  private BenchmarkFrames() {
+  }
+
+  /**
+   * @param width width of each frame
+   * @param height height of each frame
+   * @return blank, QR code of every version, dense Data Matrix, 1D, rotated and low contrast frames
+   */
+  static List<Frame> synthetic(int width, int height) throws WriterException {
+    Random random = new Random(width * 31 + height);
+    List<Frame> frames = new ArrayList<Frame>();
+
+    byte[] blank = newFrame(width, height);
+    for (int i = 0; i < width * height; i++) {
+      blank[i] = (byte) clamp(128 + random.nextInt(2 * NOISE + 1) - NOISE);
+    }
+    frames.add(new Frame("blank", blank, width, height, null));
+
+    for (int version = 1; version <= 40; version++) {
+      frames.add(qrFrame("qr-v" + version, version, width, height, 0.0, DARK, LIGHT, random));
+    }
+
+    String dataMatrixContents = randomText(random, 1000);
+    BitMatrix dataMatrix = new DataMatrixWriter().encode(dataMatrixContents, BarcodeFormat.DATA_MATRIX, 0, 0);
+    frames.add(new Frame("datamatrix-dense",
+                         render(dataMatrix, width, height, 0.0, DARK, LIGHT, random),
+                         width, height, dataMatrixContents));
+
+    String code128Contents = "ZXING-BENCHMARK-0123456789";
+    BitMatrix code128 = new Code128Writer().encode(code128Contents, BarcodeFormat.CODE_128, 0, ONE_D_HEIGHT);
+    frames.add(new Frame("code128",
+                         render(code128, width, height, 0.0, DARK, LIGHT, random),
+                         width, height, code128Contents));
+
+    String ean13Contents = "5901234123457";
+    BitMatrix ean13 = new EAN13Writer().encode(ean13Contents, BarcodeFormat.EAN_13, 0, ONE_D_HEIGHT);
+    frames.add(new Frame("ean13",
+                         render(ean13, width, height, 0.0, DARK, LIGHT, random),
+                         width, height, ean13Contents));
+
+    frames.add(qrFrame("qr-v5-rotated30", 5, width, height, Math.toRadians(30.0), DARK, LIGHT, random));
+    frames.add(qrFrame("qr-v5-lowcontrast", 5, width, height, 0.0, 80, 170, random));
+    return frames;
+  }
+
+  /**
+   * @return one frame holding a QR code of the given version, drawn like the synthetic frames
+   */
+  static Frame qrCode(int version, int width, int height) throws WriterException {
+    String contents = contentsForVersion(version, new Random(version));
+    return new Frame("qr-v" + version,
+                     render(encodeQRCode(contents), width, height, 0.0, DARK, LIGHT, new Random(version)),
+                     width, height, contents);
+  }
+
+  /**
+   * Loads every NV21 frame in a directory whose name says its size, e.g. "shelf_1280x720.nv21".
+   * Recorded frames carry no expected contents.
+   */
+  static List<Frame> recorded(File directory) throws IOException {
+    List<Frame> frames = new ArrayList<Frame>();
+    File[] files = directory.listFiles();
+    if (files == null) {
+      throw new IOException("Not a directory: " + directory);
+    }
+    Arrays.sort(files);
+    for (File file : files) {
+      Matcher matcher = RECORDED_NAME.matcher(file.getName());
+      if (!matcher.matches()) {
+        continue;
+      }
+      int width = Integer.parseInt(matcher.group(2));
+      int height = Integer.parseInt(matcher.group(3));
+      byte[] data = readFully(file);
+      if (data.length < width * height) {
+        throw new IOException("Too short for " + width + 'x' + height + ": " + file);
+      }
+      frames.add(new Frame(matcher.group(1), data, width, height, null));
+    }
+    return frames;
+  }
+
+  /**
+   * Loads the frames in a dump of the scanner's flight recorder, named after their position and
+   * why they failed, e.g. "rec3-checksum". Each frame is the whole framing rectangle; the part the
+   * scanner decoded is not used. Recorded frames carry no expected contents.
+   */
+  static List<Frame> recording(File file) throws IOException {
+    DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))));
+    try {
+      if (in.readInt() != RECORDING_MAGIC || in.readInt() != RECORDING_VERSION) {
+        throw new IOException("Not a flight recording: " + file);
+      }
+      System.err.println("Recorded with hints: " + in.readUTF());
+      int count = in.readInt();
+      List<Frame> frames = new ArrayList<Frame>(count);
+      for (int i = 0; i < count; i++) {
+        in.readLong(); // time
+        int outcome = in.readUnsignedByte();
+        int width = in.readInt();
+        int height = in.readInt();
+        in.skipBytes(16); // part decoded
+        byte[] data = new byte[width * height];
+        in.readFully(data);
+        String reason = outcome < RECORDING_OUTCOMES.length ? RECORDING_OUTCOMES[outcome] : "unknown";
+        frames.add(new Frame("rec" + i + '-' + reason, data, width, height, null));
+      }
+      return frames;
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Draws a QR code of the given version holding random text. In some symbols the QR detector
+   * takes a run of modules in the data region for a finder pattern, and the readers can misread a
+   * QR code as another format, so this tries a few texts and keeps the first whose frame decodes
+   * to it. Should none, the last is kept and the benchmark reports it.
+   */
+  private static Frame qrFrame(String name, int version, int width, int height, double angle,
+                               int dark, int light, Random random) throws WriterException {
+    String contents = null;
+    byte[] data = null;
+    for (int attempt = 0; attempt < QR_CONTENT_ATTEMPTS; attempt++) {
+      contents = contentsForVersion(version, random);
+      data = render(encodeQRCode(contents), width, height, angle, dark, light, random);
+      if (contents.equals(decode(data, width, height))) {
+        break;
+      }
+    }
+    return new Frame(name, data, width, height, contents);
+  }
+
+  /**
+   * @return the text the benchmark's readers find in the frame, or null if they find none
+   */
+  private static String decode(byte[] data, int width, int height) {
+    PlanarYUVLuminanceSource source =
+        new PlanarYUVLuminanceSource(data, width, height, 0, 0, width, height, false);
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(null);
+    try {
+      return reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source))).getText();
+    } catch (NotFoundException nfe) {
+      return null;
+    }
+  }
+
+  /**
+   * @return the shortest prefix of a random text which the QR encoder puts in a symbol of exactly
+   *     this version
+   */
+  private static String contentsForVersion(int version, Random random) throws WriterException {
+    // Capacity grows with the length, so search for the shortest prefix needing at least the version
+    String text = randomText(random, 3391); // alphanumeric capacity of version 40 at level M
+    int low = 1;
+    int high = text.length();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (Encoder.encode(text.substring(0, mid), ErrorCorrectionLevel.M).getVersion().getVersionNumber() < version) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return text.substring(0, low);
+  }
+
+  private static String randomText(Random random, int length) {
+    StringBuilder result = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      result.append((char) ('A' + random.nextInt(26)));
+    }
+    return result.toString();
+  }
+
+  private static BitMatrix encodeQRCode(String contents) throws WriterException {
+    QRCode code = Encoder.encode(contents, ErrorCorrectionLevel.M);
+    return code.getMatrix().toBitMatrix();
+  }
+
+  /**
+   * Draws a symbol, with a quiet zone, as large as fits in 80% of the frame with modules a whole
+   * number of pixels wide, rotated by the given angle about the center, slightly blurred and with
+   * some sensor noise. Only the Y plane carries the image; the chroma plane is neutral.
+   */
+  private static byte[] render(BitMatrix symbol, int width, int height, double angle,
+                               int dark, int light, Random random) {
+    int symbolWidth = symbol.getWidth() + 2 * QUIET_ZONE;
+    int symbolHeight = symbol.getHeight() + 2 * QUIET_ZONE;
+    double rotatedWidth = Math.abs(symbolWidth * Math.cos(angle)) + Math.abs(symbolHeight * Math.sin(angle));
+    double rotatedHeight = Math.abs(symbolWidth * Math.sin(angle)) + Math.abs(symbolHeight * Math.cos(angle));
+    // The QR detector misjudges the dimension of large symbols whose modules are a fraction of a
+    // pixel wider or narrower than a whole number
+    double scale = Math.max(1.0, Math.floor(0.8 * Math.min(width / rotatedWidth, height / rotatedHeight)));
+    double cos = Math.cos(angle);
+    double sin = Math.sin(angle);
+
+    byte[] frame = newFrame(width, height);
+    for (int y = 0; y < height; y++) {
+      double dy = (y + 0.5 - height / 2.0) / scale;
+      for (int x = 0; x < width; x++) {
+        double dx = (x + 0.5 - width / 2.0) / scale;
+        // Map back onto the unrotated symbol
+        int moduleX = (int) Math.floor(dx * cos + dy * sin + symbolWidth / 2.0) - QUIET_ZONE;
+        int moduleY = (int) Math.floor(-dx * sin + dy * cos + symbolHeight / 2.0) - QUIET_ZONE;
+        boolean black = moduleX >= 0 && moduleY >= 0 &&
+            moduleX < symbol.getWidth() && moduleY < symbol.getHeight() && symbol.get(moduleX, moduleY);
+        frame[y * width + x] = (byte) (black ? dark : light);
+      }
+    }
+    blurAndAddNoise(frame, width, height, random);
+    return frame;
+  }
+
+  /**
+   * Softens edges with a 3x3 box blur, as a lens slightly out of focus would, then adds sensor
+   * noise.
+   */
+  private static void blurAndAddNoise(byte[] frame, int width, int height, Random random) {
+    byte[] sharp = Arrays.copyOf(frame, width * height);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int sum = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+          int row = Math.max(0, Math.min(height - 1, y + dy)) * width;
+          for (int dx = -1; dx <= 1; dx++) {
+            sum += sharp[row + Math.max(0, Math.min(width - 1, x + dx))] & 0xFF;
+          }
+        }
+        int noise = random.nextInt(2 * NOISE + 1) - NOISE;
+        frame[y * width + x] = (byte) clamp(sum / 9 + noise);
+      }
+    }
+  }
+
+  private static byte[] newFrame(int width, int height) {
+    byte[] frame = new byte[width * height * 3 / 2];
+    Arrays.fill(frame, width * height, frame.length, (byte) 128);
+    return frame;
+  }
+
+  private static int clamp(int value) {
+    return value < 0 ? 0 : value > 255 ? 255 : value;
+  }
+
+  private static byte[] readFully(File file) throws IOException {
+    byte[] data = new byte[(int) file.length()];
+    InputStream in = new FileInputStream(file);
+    try {
+      int offset = 0;
+      while (offset < data.length) {
+        int read = in.read(data, offset, data.length - offset);
+        if (read < 0) {
+          throw new IOException("Unexpected end of " + file);
+        }
+        offset += read;
+      }
+    } finally {
+      in.close();
+    }
+    return data;
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.feng.qrcode.benchmark.BenchmarkFrames.Frame;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.common.BinarizerWorkspace;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+
+/**
+ * Checks that {@link HybridBinarizer} produces exactly the same matrix whether it binarizes an
+ * image on one thread or in bands on an executor, then times both at preview and photo sizes.
+ *
+ * <pre>
+ * java com.feng.qrcode.benchmark.BinarizerBenchmark [--threads 4] [--warmup 1] [--time 2]
+ * </pre>
+ *
+ * Exits with status 1 if any matrix differs, so it can run as a check on a build machine.
+ */
+public final class BinarizerBenchmark {
+
+  // Preview sizes, which stay on one thread, then photo sizes
+  private static final int[][] SIZES = {
+      {640, 480}, {1280, 720}, {1920, 1080}, {2592, 1944}, {3264, 2448}, {4032, 3024},
+  };
+  // Sizes whose last band is short, or ends one row of blocks before the bottom of the image
+  private static final int[][] CHECK_ONLY_SIZES = {
+      {1024, 1024}, {1283, 1031}, {8200, 129}, {7800, 135}, {2001, 1500},
+  };
+
+  private BinarizerBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    int threads = Runtime.getRuntime().availableProcessors();
+    double warmupSeconds = 1.0;
+    double measureSeconds = 2.0;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (i + 1 == args.length) {
+        usage();
+        return;
+      }
+      String value = args[++i];
+      if ("--threads".equals(arg)) {
+        threads = Integer.parseInt(value);
+      } else if ("--warmup".equals(arg)) {
+        warmupSeconds = Double.parseDouble(value);
+      } else if ("--time".equals(arg)) {
+        measureSeconds = Double.parseDouble(value);
+      } else {
+        usage();
+        return;
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      int mismatches = 0;
+      for (int[] size : CHECK_ONLY_SIZES) {
+        if (!check(size[0], size[1], executor)) {
+          mismatches++;
+        }
+      }
+      for (int[] size : SIZES) {
+        if (!check(size[0], size[1], executor)) {
+          mismatches++;
+        }
+      }
+      if (mismatches > 0) {
+        System.err.println(mismatches + " sizes binarized differently in parallel");
+        System.exit(1);
+      }
+
+      System.out.println(String.format("%-10s %12s %12s %8s", "size", "serial us", "parallel us", "speedup"));
+      for (int[] size : SIZES) {
+        LuminanceSource source = newSource(size[0], size[1]);
+        double serial = time(source, null, warmupSeconds, measureSeconds);
+        double parallel = time(source, executor, warmupSeconds, measureSeconds);
+        System.out.println(String.format("%-10s %12.1f %12.1f %8.2f",
+                                         size[0] + "x" + size[1], serial / 1.0e3, parallel / 1.0e3,
+                                         serial / parallel));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void usage() {
+    System.err.println("Usage: BinarizerBenchmark [--threads N] [--warmup SECONDS] [--time SECONDS]");
+  }
+
+  /**
+   * @return true if both ways of binarizing an image of this size give the same matrix
+   */
+  private static boolean check(int width, int height, ExecutorService executor) throws Exception {
+    LuminanceSource source = newSource(width, height);
+    BitMatrix serial = new HybridBinarizer(source, new BinarizerWorkspace()).getBlackMatrix();
+    BitMatrix parallel = new HybridBinarizer(source, new BinarizerWorkspace(), executor).getBlackMatrix();
+    boolean same = serial.equals(parallel);
+    System.out.println(String.format("%-10s %s", width + "x" + height, same ? "identical" : "DIFFERENT"));
+    return same;
+  }
+
+  private static LuminanceSource newSource(int width, int height) throws Exception {
+    Frame frame = BenchmarkFrames.qrCode(10, width, height);
+    return new PlanarYUVLuminanceSource(frame.data, width, height, 0, 0, width, height, false);
+  }
+
+  /**
+   * @return mean nanoseconds to binarize the image, reusing one workspace as a caller would
+   */
+  private static double time(LuminanceSource source, ExecutorService executor,
+                             double warmupSeconds, double measureSeconds) throws NotFoundException {
+    BinarizerWorkspace workspace = new BinarizerWorkspace();
+    long warmupEnd = System.nanoTime() + (long) (warmupSeconds * 1.0e9);
+    do {
+      new HybridBinarizer(source, workspace, executor).getBlackMatrix();
+    } while (System.nanoTime() < warmupEnd);
+
+    int count = 0;
+    long start = System.nanoTime();
+    long end = start + (long) (measureSeconds * 1.0e9);
+    long now;
+    do {
+      new HybridBinarizer(source, workspace, executor).getBlackMatrix();
+      count++;
+      now = System.nanoTime();
+    } while (now < end);
+    return (now - start) / (double) count;
+  }
+
+}
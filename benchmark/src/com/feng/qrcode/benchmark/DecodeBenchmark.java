@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.benchmark;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.feng.qrcode.benchmark.BenchmarkFrames.Frame;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.common.BinarizerWorkspace;
+import com.google.zxing.common.HybridBinarizer;
+
+/**
+ * Measures the decode pipeline the scanner runs on every preview frame:
+ * {@link PlanarYUVLuminanceSource} to {@link HybridBinarizer} to
+ * {@link MultiFormatReader#decodeWithState(BinaryBitmap)}, on a plain JVM. For each frame it
+ * reports throughput, latency percentiles and bytes allocated per decode, and whether the frame
+ * decoded to the expected text, so that a faster change which breaks decoding stands out. It exits
+ * with status 1 if any frame did not.
+ *
+ * <pre>
+ * java com.feng.qrcode.benchmark.DecodeBenchmark [--size 1280x720] [--warmup 1] [--time 2]
+ *     [--frames dir] [--recording file] [--filter qr-v1]
+ * </pre>
+ *
+ * Each frame is first decoded repeatedly for the warmup time, then measured for the measurement
+ * time, in seconds. Frames recorded from a device can be added with {@code --frames}; see
+ * {@link BenchmarkFrames#recorded(File)} for how they are named, and frames which failed to scan
+ * on a device can be replayed from a flight recorder dump with {@code --recording}.
+ */
+public final class DecodeBenchmark {
+
+  private final double warmupSeconds;
+  private final double measureSeconds;
+  private final ThreadMXBean threads;
+  private final boolean allocationSupported;
+  // Frames which did not decode to their expected text
+  private final List<String> failures;
+
+  private DecodeBenchmark(double warmupSeconds, double measureSeconds) {
+    this.warmupSeconds = warmupSeconds;
+    this.measureSeconds = measureSeconds;
+    threads = ManagementFactory.getThreadMXBean();
+    allocationSupported = threads instanceof com.sun.management.ThreadMXBean &&
+        ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+    failures = new ArrayList<String>();
+  }
+
+  public static void main(String[] args) throws Exception {
+    int width = 1280;
+    int height = 720;
+    double warmupSeconds = 1.0;
+    double measureSeconds = 2.0;
+    File recordedFrames = null;
+    File recording = null;
+    String filter = null;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (i + 1 == args.length) {
+        usage();
+        return;
+      }
+      String value = args[++i];
+      if ("--size".equals(arg)) {
+        String[] size = value.split("x");
+        width = Integer.parseInt(size[0]);
+        height = Integer.parseInt(size[1]);
+      } else if ("--warmup".equals(arg)) {
+        warmupSeconds = Double.parseDouble(value);
+      } else if ("--time".equals(arg)) {
+        measureSeconds = Double.parseDouble(value);
+      } else if ("--frames".equals(arg)) {
+        recordedFrames = new File(value);
+      } else if ("--recording".equals(arg)) {
+        recording = new File(value);
+      } else if ("--filter".equals(arg)) {
+        filter = value;
+      } else {
+        usage();
+        return;
+      }
+    }
+
+    List<Frame> frames = new ArrayList<Frame>(BenchmarkFrames.synthetic(width, height));
+    if (recordedFrames != null) {
+      frames.addAll(BenchmarkFrames.recorded(recordedFrames));
+    }
+    if (recording != null) {
+      frames.addAll(BenchmarkFrames.recording(recording));
+    }
+
+    DecodeBenchmark benchmark = new DecodeBenchmark(warmupSeconds, measureSeconds);
+    System.out.println(String.format("%-20s %-10s %-8s %10s %10s %10s %10s %10s %10s",
+                                     "frame", "size", "decoded", "ops/s",
+                                     "p50 us", "p95 us", "p99 us", "max us", "bytes/op"));
+    for (Frame frame : frames) {
+      if (filter == null || frame.name.startsWith(filter)) {
+        System.out.println(benchmark.run(frame));
+      }
+    }
+    if (!benchmark.failures.isEmpty()) {
+      System.err.println("Did not decode to the expected text: " + benchmark.failures);
+      System.exit(1);
+    }
+  }
+
+  private static void usage() {
+    System.err.println("Usage: DecodeBenchmark [--size WIDTHxHEIGHT] [--warmup SECONDS] [--time SECONDS]" +
+                       " [--frames DIRECTORY] [--recording FILE] [--filter PREFIX]");
+  }
+
+  private String run(Frame frame) {
+    // Set up as DecodeHandler does: one reader and one binarizer workspace, reused per frame
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setHints(null);
+    BinarizerWorkspace workspace = new BinarizerWorkspace();
+
+    String decoded = null;
+    int warmupCount = 0;
+    long warmupStart = System.nanoTime();
+    long warmupEnd = warmupStart + (long) (warmupSeconds * 1.0e9);
+    long warmupNow;
+    do {
+      decoded = decode(frame, reader, workspace);
+      warmupCount++;
+      warmupNow = System.nanoTime();
+    } while (warmupNow < warmupEnd);
+
+    // Sized from the warmup throughput, with room to spare, so that the array rarely has to grow
+    // while allocation is measured; if it does, the copy is left out of the count
+    double warmupOpsPerSecond = warmupCount * 1.0e9 / Math.max(1L, warmupNow - warmupStart);
+    int expectedCount = (int) Math.min(1 << 24, 2.0 * warmupOpsPerSecond * measureSeconds);
+    long[] latencies = new long[Math.max(1024, expectedCount)];
+    int count = 0;
+    long growthAllocated = 0L;
+    long allocatedBefore = allocatedBytes();
+    long start = System.nanoTime();
+    long end = start + (long) (measureSeconds * 1.0e9);
+    long now = start;
+    do {
+      decode(frame, reader, workspace);
+      long finished = System.nanoTime();
+      if (count == latencies.length) {
+        long beforeGrowth = allocatedBytes();
+        latencies = Arrays.copyOf(latencies, count * 2);
+        growthAllocated += allocatedBytes() - beforeGrowth;
+      }
+      latencies[count++] = finished - now;
+      now = finished;
+    } while (now < end);
+    long allocated = allocatedBytes() - allocatedBefore - growthAllocated;
+
+    Arrays.sort(latencies, 0, count);
+    String status;
+    if (frame.expected == null) {
+      status = decoded == null ? "-" : "yes";
+    } else {
+      if (frame.expected.equals(decoded)) {
+        status = "yes";
+      } else {
+        status = "NO";
+        failures.add(frame.name);
+      }
+    }
+    return String.format("%-20s %-10s %-8s %10.1f %10.1f %10.1f %10.1f %10.1f %10s",
+                         frame.name,
+                         frame.width + "x" + frame.height,
+                         status,
+                         count * 1.0e9 / (now - start),
+                         percentile(latencies, count, 0.50) / 1.0e3,
+                         percentile(latencies, count, 0.95) / 1.0e3,
+                         percentile(latencies, count, 0.99) / 1.0e3,
+                         latencies[count - 1] / 1.0e3,
+                         allocationSupported ? String.valueOf(allocated / count) : "n/a");
+  }
+
+  /**
+   * @return the decoded text, or null if nothing was found
+   */
+  private static String decode(Frame frame, MultiFormatReader reader, BinarizerWorkspace workspace) {
+    PlanarYUVLuminanceSource source =
+        new PlanarYUVLuminanceSource(frame.data, frame.width, frame.height, 0, 0, frame.width, frame.height, false);
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source, workspace));
+    try {
+      Result result = reader.decodeWithState(bitmap);
+      return result.getText();
+    } catch (NotFoundException nfe) {
+      return null;
+    } finally {
+      reader.reset();
+    }
+  }
+
+  private static long percentile(long[] sorted, int count, double fraction) {
+    int index = (int) Math.ceil(fraction * count) - 1;
+    return sorted[Math.max(0, Math.min(index, count - 1))];
+  }
+
+  private long allocatedBytes() {
+    if (!allocationSupported) {
+      return 0L;
+    }
+    return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+}
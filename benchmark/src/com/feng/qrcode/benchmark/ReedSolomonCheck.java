@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.google.zxing.common.reedsolomon.GenericGF;
+import com.google.zxing.common.reedsolomon.ReedSolomonDecoder;
+import com.google.zxing.common.reedsolomon.ReedSolomonEncoder;
+import com.google.zxing.common.reedsolomon.ReedSolomonException;
+
+/**
+ * Checks how many errors {@link ReedSolomonDecoder} corrects: every block with up to twoS / 2
+ * errors, rounded down, must come back exactly as encoded, and no block with one error more may,
+ * for odd numbers of error-correction codewords too. Blocks are random, from a fixed seed.
+ *
+ * <pre>
+ * java com.feng.qrcode.benchmark.ReedSolomonCheck [--blocks 1000]
+ * </pre>
+ *
+ * Exits with status 1 if any block is decoded otherwise, so it can run as a check on a build
+ * machine.
+ */
+public final class ReedSolomonCheck {
+
+  // Field, block length, error-correction codewords; odd counts such as the Aztec compact mode
+  // message's 5 included
+  private static final Object[][] CASES = {
+      {GenericGF.AZTEC_PARAM, 7, 5},
+      {GenericGF.AZTEC_PARAM, 10, 6},
+      {GenericGF.AZTEC_DATA_6, 40, 11},
+      {GenericGF.AZTEC_DATA_10, 300, 31},
+      {GenericGF.AZTEC_DATA_12, 500, 40},
+      {GenericGF.QR_CODE_FIELD_256, 26, 7},
+      {GenericGF.QR_CODE_FIELD_256, 134, 26},
+      {GenericGF.DATA_MATRIX_FIELD_256, 30, 11},
+      {GenericGF.DATA_MATRIX_FIELD_256, 255, 68},
+  };
+
+  private ReedSolomonCheck() {
+  }
+
+  public static void main(String[] args) {
+    int blocks = 1000;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (i + 1 == args.length || !"--blocks".equals(arg)) {
+        usage();
+        return;
+      }
+      blocks = Integer.parseInt(args[++i]);
+    }
+
+    Random random = new Random(0x5253L);
+    int failures = 0;
+    for (Object[] testCase : CASES) {
+      GenericGF field = (GenericGF) testCase[0];
+      int length = (Integer) testCase[1];
+      int twoS = (Integer) testCase[2];
+      int correctable = twoS / 2;
+      for (int errors = 0; errors <= correctable + 1; errors++) {
+        int restored = check(field, length, twoS, errors, blocks, random);
+        boolean expected = errors <= correctable ? restored == blocks : restored == 0;
+        System.out.println(String.format("%-14s %4d codewords %3d EC %3d errors: %5d of %d restored%s",
+                                         field, length, twoS, errors, restored, blocks,
+                                         expected ? "" : " WRONG"));
+        if (!expected) {
+          failures++;
+        }
+      }
+    }
+    if (failures > 0) {
+      System.err.println(failures + " cases corrected a different number of errors than expected");
+      System.exit(1);
+    }
+  }
+
+  private static void usage() {
+    System.err.println("Usage: ReedSolomonCheck [--blocks N]");
+  }
+
+  /**
+   * @return how many of the blocks, each with this many errors in random places, decode back to
+   *   exactly what was encoded
+   */
+  private static int check(GenericGF field, int length, int twoS, int errors, int blocks, Random random) {
+    ReedSolomonEncoder encoder = new ReedSolomonEncoder(field);
+    ReedSolomonDecoder decoder = new ReedSolomonDecoder(field);
+    int[] encoded = new int[length];
+    int[] received = new int[length];
+    int[] positions = new int[length];
+    int restored = 0;
+    for (int block = 0; block < blocks; block++) {
+      for (int i = 0; i < length - twoS; i++) {
+        encoded[i] = random.nextInt(field.getSize());
+      }
+      encoder.encode(encoded, twoS);
+      System.arraycopy(encoded, 0, received, 0, length);
+      // A partial shuffle picks distinct positions
+      for (int i = 0; i < length; i++) {
+        positions[i] = i;
+      }
+      for (int e = 0; e < errors; e++) {
+        int swap = e + random.nextInt(length - e);
+        int position = positions[swap];
+        positions[swap] = positions[e];
+        positions[e] = position;
+        received[position] ^= 1 + random.nextInt(field.getSize() - 1);
+      }
+      try {
+        decoder.decode(received, twoS);
+        if (Arrays.equals(received, encoded)) {
+          restored++;
+        }
+      } catch (ReedSolomonException rse) {
+        // Not restored
+      }
+    }
+    return restored;
+  }
+
+}
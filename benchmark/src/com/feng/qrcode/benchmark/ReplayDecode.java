@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.benchmark;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.feng.qrcode.camera.FrameCallback;
+import com.feng.qrcode.camera.ReplayFrameSource;
+import com.feng.qrcode.capture.FrameCounters;
+import com.feng.qrcode.capture.FrameDecoder;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeTracer;
+import com.google.zxing.Result;
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
+
+/**
+ * Runs the scanner's decode pipeline on a plain JVM, fed by recorded frames instead of a camera:
+ * a {@link ReplayFrameSource} plays the frames in real time to a number of decode threads, each of
+ * which asks for a frame, decodes it with its own {@link FrameDecoder} as a decode thread on the
+ * device does, hands it back and asks for the next. Frames which come due while every thread is
+ * busy are skipped, as with a camera, so the report shows whether the pipeline keeps up.
+ *
+ * <pre>
+ * java com.feng.qrcode.benchmark.ReplayDecode --frames dir [--fps 30] [--threads 3] [--rotation 0]
+ *     [--passes 1]
+ * </pre>
+ *
+ * Frames are raw NV21 files named like "shelf_1280x720.nv21", as for {@link DecodeBenchmark}.
+ * The pipeline is configured by {@link com.feng.qrcode.QRcodeConfig}, as on the device.
+ */
+public final class ReplayDecode {
+
+  // How long a decode thread waits for a frame before checking whether the replay is over
+  private static final long FRAME_WAIT_MILLIS = 50L;
+
+  private ReplayDecode() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    File frames = null;
+    float framesPerSecond = 30.0f;
+    int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+    int rotation = 0;
+    int passes = 1;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (i + 1 == args.length) {
+        usage();
+        return;
+      }
+      String value = args[++i];
+      if ("--frames".equals(arg)) {
+        frames = new File(value);
+      } else if ("--fps".equals(arg)) {
+        framesPerSecond = Float.parseFloat(value);
+      } else if ("--threads".equals(arg)) {
+        threads = Integer.parseInt(value);
+      } else if ("--rotation".equals(arg)) {
+        rotation = Integer.parseInt(value);
+      } else if ("--passes".equals(arg)) {
+        passes = Integer.parseInt(value);
+      } else {
+        usage();
+        return;
+      }
+    }
+    if (frames == null) {
+      usage();
+      return;
+    }
+
+    ReplayFrameSource frameSource = new ReplayFrameSource(frames, framesPerSecond, passes > 1, rotation);
+    long frameCount = (long) frameSource.getFrameCount() * passes;
+    FrameCounters frameCounters = new FrameCounters();
+    DecodeTracer decodeTracer = new DecodeTracer();
+    DecodeWorker[] workers = new DecodeWorker[threads];
+    for (int i = 0; i < workers.length; i++) {
+      Map<DecodeHintType,Object> hints = new EnumMap<DecodeHintType,Object>(DecodeHintType.class);
+      hints.put(DecodeHintType.DECODE_TRACER, decodeTracer);
+      workers[i] = new DecodeWorker(frameSource, new FrameDecoder(hints, frameCounters, null));
+    }
+
+    // As CaptureActivityHandler does: one buffer per decode thread, and one more to fill
+    frameSource.setPreviewBufferCount(workers.length + 1);
+    long start = System.nanoTime();
+    frameSource.startPreview();
+    for (DecodeWorker worker : workers) {
+      worker.start();
+    }
+    while (frameSource.getDeliveredCount() + frameSource.getSkippedCount() < frameCount) {
+      Thread.sleep(FRAME_WAIT_MILLIS);
+    }
+    frameSource.stopPreview();
+    for (DecodeWorker worker : workers) {
+      worker.finish();
+    }
+    double seconds = (System.nanoTime() - start) / 1.0e9;
+
+    long found = 0L;
+    Set<String> texts = new TreeSet<String>();
+    for (DecodeWorker worker : workers) {
+      found += worker.found;
+      texts.addAll(worker.texts);
+    }
+    System.out.println(String.format("%d frames in %.1f s on %d threads: %d delivered, %d skipped",
+                                     frameCount, seconds, workers.length,
+                                     frameSource.getDeliveredCount(), frameSource.getSkippedCount()));
+    System.out.println(frameCounters + ", found: " + found);
+    for (String text : texts) {
+      System.out.println("  " + text);
+    }
+    System.out.print(decodeTracer);
+  }
+
+  private static void usage() {
+    System.err.println("Usage: ReplayDecode --frames DIRECTORY [--fps RATE] [--threads N] [--rotation DEGREES]" +
+                       " [--passes N]");
+  }
+
+  /**
+   * A frame delivered to a decode thread.
+   */
+  private static final class Frame {
+    final byte[] data;
+    final int width;
+    final int height;
+
+    Frame(byte[] data, int width, int height) {
+      this.data = data;
+      this.width = width;
+      this.height = height;
+    }
+  }
+
+  /**
+   * One decode thread: asks for a frame, decodes it, hands it back, and asks again.
+   */
+  private static final class DecodeWorker extends Thread implements FrameCallback {
+
+    private final ReplayFrameSource frameSource;
+    private final FrameDecoder frameDecoder;
+    private final BlockingQueue<Frame> frames;
+    private volatile boolean finished;
+    // Read once the thread is joined
+    long found;
+    final Set<String> texts;
+
+    DecodeWorker(ReplayFrameSource frameSource, FrameDecoder frameDecoder) {
+      super("ReplayDecode worker");
+      this.frameSource = frameSource;
+      this.frameDecoder = frameDecoder;
+      frames = new ArrayBlockingQueue<Frame>(1);
+      texts = new TreeSet<String>();
+    }
+
+    @Override
+    public void onPreviewFrame(byte[] data, int width, int height) {
+      // Never blocks: each worker asks for one frame at a time
+      frames.offer(new Frame(data, width, height));
+    }
+
+    @Override
+    public void run() {
+      frameSource.requestPreviewFrame(this);
+      try {
+        // Frames already delivered are still decoded once the replay is over
+        while (!finished || !frames.isEmpty()) {
+          Frame frame = frames.poll(FRAME_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+          if (frame == null) {
+            continue;
+          }
+          RotatedPlanarYUVLuminanceSource source =
+              frameDecoder.buildLuminanceSource(frameSource, frame.data, frame.width, frame.height);
+          Result result = frameDecoder.decode(source);
+          if (result != null) {
+            found++;
+            texts.add(result.getText());
+          }
+          frameSource.releasePreviewFrame(frame.data);
+          frameSource.requestPreviewFrame(this);
+        }
+      } catch (InterruptedException ie) {
+        // Finished
+      }
+    }
+
+    /**
+     * Once the frame source is stopped: decodes the frames already delivered, then stops the
+     * thread and waits for it.
+     */
+    void finish() throws InterruptedException {
+      finished = true;
+      join();
+    }
+
+  }
+
+}
@@ -18,4 +18,44 @@ public class QRcodeConfig {
 	  public static final boolean KEY_DECODE_AZTEC = false;  
 	  public static final boolean KEY_DECODE_PDF417 = false;  
 	  
+	  public static final boolean KEY_PREVIEW_BUFFER_POOL = true;
+	  /** Number of frames decoded in parallel; 0 picks one per spare CPU core. */
+	  public static final int KEY_DECODE_THREAD_COUNT = 0;
+	  /** Skip frames too flat or blurry to decode, such as while the camera refocuses. */
+	  public static final boolean KEY_FRAME_QUALITY_GATE = true;
+	  /** Spread between dark and light, out of 255, below which a frame is skipped. */
+	  public static final int KEY_MIN_FRAME_CONTRAST = 24;
+	  /** Step across the sharpest edges, out of 255, below which a frame is skipped as blurred. */
+	  public static final int KEY_MIN_FRAME_SHARPNESS = 14;
+	  /** Skip frames which look the same as the last one decoded, as when the phone lies still. */
+	  public static final boolean KEY_FRAME_CHANGE_GATE = true;
+	  /** Mean change in luminance, out of 255, below which a frame counts as the same. */
+	  public static final int KEY_MIN_FRAME_CHANGE = 3;
+	  /** Decode a frame at least this often even if nothing seems to change, in ms. */
+	  public static final long KEY_FORCED_DECODE_INTERVAL_MS = 1000L;
+	  /** Decode a crop around where candidate patterns were last seen, rather than the whole frame. */
+	  public static final boolean KEY_TRACK_REGION = true;
+	  /** Frames in a row which may fail in the tracked crop before the whole frame is decoded again. */
+	  public static final int KEY_REGION_MISS_BUDGET = 5;
+	  /** Keep scanning after a result, reporting each new barcode to a ScanResultListener. */
+	  public static final boolean KEY_CONTINUOUS_SCAN = false;
+	  /** While scanning continuously, a barcode seen again within this many ms is not reported again. */
+	  public static final long KEY_DUPLICATE_WINDOW_MS = 3000L;
+	  /** While scanning continuously, how many recent barcodes to remember for suppressing repeats. */
+	  public static final int KEY_DUPLICATE_CACHE_SIZE = 256;
+	  /** Time every stage of decoding, per reader, into histograms read from the capture handler. */
+	  public static final boolean KEY_DECODE_TRACING = true;
+	  /** Halvings of resolution to try the whole framing rectangle at before full. */
+	  public static final int KEY_PYRAMID_LEVELS = 2;
+	  /** Smallest width or height, in pixels, at which a reduced resolution is still tried. */
+	  public static final int KEY_PYRAMID_MIN_SIZE = 120;
+	  /** Decode the NV21 frames recorded in this directory, named like "shelf_1280x720.nv21"; null for the camera. */
+	  public static final String KEY_REPLAY_FRAMES_DIR = null;
+	  /** Rate at which recorded frames are played back. */
+	  public static final float KEY_REPLAY_FRAMES_PER_SECOND = 30.0f;
+	  /** Clockwise rotation from recorded frames to upright: 0, 90, 180 or 270. The whole frame is decoded. */
+	  public static final int KEY_REPLAY_ROTATION = 90;
+	  /** Keep this many of the last frames which failed to scan, for dumping; 0 keeps none. */
+	  public static final int KEY_FLIGHT_RECORDER_FRAMES = 0;
+	  
 }
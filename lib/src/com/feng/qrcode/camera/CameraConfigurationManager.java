@@ -35,6 +35,9 @@ final class CameraConfigurationManager {
 
   private static final String TAG = "CameraConfiguration";
 
+  // Preview is always shown in portrait, so camera frames are rotated this much clockwise.
+  private static final int DISPLAY_ORIENTATION = 90;
+
   private final Context context;
   private Point screenResolution;
   private Point cameraResolution;
@@ -103,7 +106,7 @@ final class CameraConfigurationManager {
 
     Log.i(TAG, "Final camera parameters: " + parameters.flatten());
 
-    camera.setDisplayOrientation(90);
+    camera.setDisplayOrientation(DISPLAY_ORIENTATION);
     camera.setParameters(parameters);
 
     Camera.Parameters afterParameters = camera.getParameters();
@@ -124,6 +127,10 @@ final class CameraConfigurationManager {
     return screenResolution;
   }
 
+  int getDisplayOrientation() {
+    return DISPLAY_ORIENTATION;
+  }
+
   boolean getTorchState(Camera camera) {
     if (camera != null) {
       Camera.Parameters parameters = camera.getParameters();
@@ -19,15 +19,16 @@ package com.feng.qrcode.camera;
 import java.io.IOException;
 
 import android.content.Context;
+import android.graphics.ImageFormat;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.hardware.Camera;
-import android.os.Handler;
 import android.util.Log;
 import android.view.SurfaceHolder;
 
+import com.feng.qrcode.QRcodeConfig;
 import com.feng.qrcode.camera.open.OpenCameraInterface;
-import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
 
 /**
  * This object wraps the Camera service object and expects to be the only one talking to it. The
@@ -36,7 +37,7 @@ import com.google.zxing.PlanarYUVLuminanceSource;
  *
  * @author dswitkin@google.com (Daniel Switkin)
  */
-public final class CameraManager {
+public final class CameraManager implements FrameSource {
 
   private static final String TAG = CameraManager.class.getSimpleName();
 
@@ -44,6 +45,7 @@ public final class CameraManager {
   private static final int MIN_FRAME_HEIGHT = 240;
   private static final int MAX_FRAME_WIDTH = 1200; // = 5/8 * 1920
   private static final int MAX_FRAME_HEIGHT = 675; // = 5/8 * 1080
+  private static final int PREVIEW_BUFFER_COUNT = 3;
 
   private final Context context;
   private final CameraConfigurationManager configManager;
@@ -61,11 +63,17 @@ public final class CameraManager {
    * clear the handler so it will only receive one message.
    */
   private final PreviewCallback previewCallback;
+  /**
+   * When enabled, preview frames are delivered in buffers from this pool, which decoders must
+   * hand back through {@link #releasePreviewFrame(byte[])}.
+   */
+  private final PreviewBufferPool previewBufferPool;
 
   public CameraManager(Context context) {
     this.context = context;
     this.configManager = new CameraConfigurationManager(context);
-    previewCallback = new PreviewCallback(configManager);
+    previewBufferPool = QRcodeConfig.KEY_PREVIEW_BUFFER_POOL ? new PreviewBufferPool(PREVIEW_BUFFER_COUNT) : null;
+    previewCallback = new PreviewCallback(configManager, previewBufferPool);
   }
   
   /**
@@ -141,9 +149,14 @@ public final class CameraManager {
   /**
    * Asks the camera hardware to begin drawing preview frames to the screen.
    */
+  @Override
   public synchronized void startPreview() {
     Camera theCamera = camera;
     if (theCamera != null && !previewing) {
+      if (previewBufferPool != null) {
+        theCamera.setPreviewCallbackWithBuffer(previewCallback);
+        previewBufferPool.attach(theCamera, getPreviewBufferSize(theCamera));
+      }
       theCamera.startPreview();
       previewing = true;
       autoFocusManager = new AutoFocusManager(context, camera);
@@ -153,6 +166,7 @@ public final class CameraManager {
   /**
    * Tells the camera to stop drawing preview frames.
    */
+  @Override
   public synchronized void stopPreview() {
     if (autoFocusManager != null) {
       autoFocusManager.stop();
@@ -160,11 +174,25 @@ public final class CameraManager {
     }
     if (camera != null && previewing) {
       camera.stopPreview();
-      previewCallback.setHandler(null, 0);
+      if (previewBufferPool != null) {
+        camera.setPreviewCallbackWithBuffer(null);
+        previewBufferPool.detach();
+      }
+      previewCallback.clearCallbacks();
       previewing = false;
     }
   }
 
+  private int getPreviewBufferSize(Camera theCamera) {
+    Point cameraResolution = configManager.getCameraResolution();
+    int bitsPerPixel = ImageFormat.getBitsPerPixel(theCamera.getParameters().getPreviewFormat());
+    if (bitsPerPixel <= 0) {
+      // Unknown format; assume the default NV21
+      bitsPerPixel = ImageFormat.getBitsPerPixel(ImageFormat.NV21);
+    }
+    return cameraResolution.x * cameraResolution.y * bitsPerPixel / 8;
+  }
+
   /**
    * Convenience method for {@link com.google.zxing.client.android.CaptureActivity}
    *
@@ -185,21 +213,56 @@ public final class CameraManager {
   }
 
   /**
-   * A single preview frame will be returned to the handler supplied. The data will arrive as byte[]
-   * in the message.obj field, with width and height encoded as message.arg1 and message.arg2,
-   * respectively.
+   * A single preview frame will be passed to the callback supplied, on the thread the camera was
+   * opened on. Several callbacks may be waiting at once; each gets its own frame, in the order
+   * they asked.
    *
-   * @param handler The handler to send the message to.
-   * @param message The what field of the message to be sent.
+   * @param callback Receives the frame.
    */
-  public synchronized void requestPreviewFrame(Handler handler, int message) {
+  @Override
+  public synchronized void requestPreviewFrame(FrameCallback callback) {
     Camera theCamera = camera;
     if (theCamera != null && previewing) {
-      previewCallback.setHandler(handler, message);
-      theCamera.setOneShotPreviewCallback(previewCallback);
+      previewCallback.addCallback(callback);
+      if (previewBufferPool == null) {
+        theCamera.setOneShotPreviewCallback(previewCallback);
+      }
+    }
+  }
+
+  /**
+   * Hands a frame delivered by {@link #requestPreviewFrame(FrameCallback)} back once the caller is
+   * done with it, so its buffer can be reused. Callers must not touch the data afterwards.
+   *
+   * @param data The preview frame.
+   */
+  @Override
+  public synchronized void releasePreviewFrame(byte[] data) {
+    if (previewBufferPool != null) {
+      previewBufferPool.recycle(data);
+    }
+  }
+
+  /**
+   * Sets how many preview buffers may be in use at once. This should be at least one more than the
+   * number of frames being decoded at the same time, so the camera always has a buffer to fill.
+   *
+   * @param count number of preview buffers
+   */
+  @Override
+  public synchronized void setPreviewBufferCount(int count) {
+    if (previewBufferPool != null) {
+      previewBufferPool.setCapacity(count);
     }
   }
 
+  /**
+   * @return the pool preview frames are delivered in, or {@code null} if pooling is disabled
+   */
+  public PreviewBufferPool getPreviewBufferPool() {
+    return previewBufferPool;
+  }
+
   /**
    * Calculates the framing rect which the UI should draw to show the user where to place the
    * barcode. This target helps with alignment as well as forces the user to hold the device
@@ -319,21 +382,23 @@ public final class CameraManager {
 
   /**
    * A factory method to build the appropriate LuminanceSource object based on the format
-   * of the preview buffers, as described by Camera.Parameters.
+   * of the preview buffers, as described by Camera.Parameters. The frame is rotated to match
+   * the display orientation as it is read, so only the framing rectangle is ever touched.
    *
-   * @param data A preview frame.
-   * @param width The width of the image.
-   * @param height The height of the image.
-   * @return A PlanarYUVLuminanceSource instance.
+   * @param data A preview frame, as delivered by the camera.
+   * @param width The width of the preview frame.
+   * @param height The height of the preview frame.
+   * @return A RotatedPlanarYUVLuminanceSource instance.
    */
-  public PlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
+  @Override
+  public RotatedPlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
     Rect rect = getFramingRectInPreview();
     if (rect == null) {
       return null;
     }
     // Go ahead and assume it's YUV rather than die.
-    return new PlanarYUVLuminanceSource(data, width, height, rect.left, rect.top,
-                                        rect.width(), rect.height(), false);
+    return new RotatedPlanarYUVLuminanceSource(data, width, height, configManager.getDisplayOrientation(),
+                                               rect.left, rect.top, rect.width(), rect.height());
   }
 
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.camera;
+
+/**
+ * Receives a frame asked for with {@link FrameSource#requestPreviewFrame(FrameCallback)}.
+ */
+public interface FrameCallback {
+
+  /**
+   * Called on the source's own thread, which should not be held up: pass the frame on to be
+   * decoded elsewhere. Once done with it, hand it back with
+   * {@link FrameSource#releasePreviewFrame(byte[])}.
+   *
+   * @param data The frame, in NV21.
+   * @param width The width of the frame.
+   * @param height The height of the frame.
+   */
+  void onPreviewFrame(byte[] data, int width, int height);
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.camera;
+
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
+
+/**
+ * Where the decode pipeline gets its preview frames from: the camera, through
+ * {@link CameraManager}, or frames recorded earlier, through {@link ReplayFrameSource}. Frames are
+ * handed out one per request and must be handed back once decoded, so that their buffers can be
+ * reused.
+ */
+public interface FrameSource {
+
+  /**
+   * Starts producing frames.
+   */
+  void startPreview();
+
+  /**
+   * Stops producing frames, and forgets any callbacks still waiting for one.
+   */
+  void stopPreview();
+
+  /**
+   * Sets how many frame buffers may be in use at once. This should be at least one more than the
+   * number of frames being decoded at the same time, so the source always has a buffer to fill.
+   *
+   * @param count number of frame buffers
+   */
+  void setPreviewBufferCount(int count);
+
+  /**
+   * A single frame will be passed to the callback supplied. Several callbacks may be waiting at
+   * once; each gets its own frame, in the order they asked.
+   *
+   * @param callback Receives the frame.
+   */
+  void requestPreviewFrame(FrameCallback callback);
+
+  /**
+   * Hands a frame delivered by {@link #requestPreviewFrame(FrameCallback)} back once the caller is
+   * done with it, so its buffer can be reused. Callers must not touch the data afterwards.
+   *
+   * @param data The frame.
+   */
+  void releasePreviewFrame(byte[] data);
+
+  /**
+   * @param data A frame, as delivered by this source.
+   * @param width The width of the frame.
+   * @param height The height of the frame.
+   * @return the part of the frame to decode, rotated to the display orientation, or null if it
+   *  is not known yet
+   */
+  RotatedPlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height);
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.camera;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import android.hardware.Camera;
+
+/**
+ * A small, bounded ring of preview buffers which are handed to the camera driver with
+ * {@link Camera#addCallbackBuffer(byte[])} and cycled back to it once a frame has been decoded.
+ * In steady state no preview frame causes an allocation. A buffer taken from the pool counts as
+ * a hit; a buffer which had to be allocated counts as a miss.
+ */
+public final class PreviewBufferPool {
+
+  private int capacity;
+  private final Deque<byte[]> freeBuffers;
+  private Camera camera;
+  private int bufferSize;
+  private int allocatedCount;
+  private int queuedCount;
+  private long hitCount;
+  private long missCount;
+
+  PreviewBufferPool(int capacity) {
+    freeBuffers = new ArrayDeque<byte[]>();
+    setCapacity(capacity);
+  }
+
+  /**
+   * Changes the number of buffers the pool may hold. Extra buffers are allocated the next time the
+   * pool is attached; surplus buffers are dropped as they come back.
+   *
+   * @param capacity maximum number of buffers
+   */
+  synchronized void setCapacity(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  /**
+   * Queues every buffer of the pool with the camera, allocating any that are missing.
+   *
+   * @param camera The camera whose preview callback was installed with a buffer.
+   * @param bufferSize The size in bytes of one preview frame.
+   */
+  synchronized void attach(Camera camera, int bufferSize) {
+    if (bufferSize != this.bufferSize) {
+      // Preview size changed: buffers of the old size are useless now
+      freeBuffers.clear();
+      allocatedCount = 0;
+      this.bufferSize = bufferSize;
+    }
+    this.camera = camera;
+    while (!freeBuffers.isEmpty()) {
+      enqueue(freeBuffers.poll());
+      hitCount++;
+    }
+    while (allocatedCount < capacity) {
+      enqueue(new byte[bufferSize]);
+      allocatedCount++;
+      missCount++;
+    }
+  }
+
+  /**
+   * Stops handing buffers to the camera. The camera drops its queue when its preview callback
+   * is cleared, so buffers still queued with it are forgotten.
+   */
+  synchronized void detach() {
+    camera = null;
+    allocatedCount -= queuedCount;
+    queuedCount = 0;
+  }
+
+  /**
+   * Notes that the camera filled one of the queued buffers and passed it on.
+   */
+  synchronized void onFrameDelivered() {
+    if (queuedCount > 0) {
+      queuedCount--;
+    }
+  }
+
+  /**
+   * Returns a buffer to the pool, and so to the camera if it is still previewing.
+   *
+   * @param buffer A buffer previously delivered by the camera.
+   */
+  synchronized void recycle(byte[] buffer) {
+    if (buffer == null || buffer.length != bufferSize) {
+      // Left over from a previous preview size
+      return;
+    }
+    if (allocatedCount > capacity) {
+      // The pool shrank
+      allocatedCount--;
+      return;
+    }
+    if (camera != null) {
+      enqueue(buffer);
+      hitCount++;
+    } else if (freeBuffers.size() < capacity) {
+      freeBuffers.add(buffer);
+    }
+  }
+
+  private void enqueue(byte[] buffer) {
+    camera.addCallbackBuffer(buffer);
+    queuedCount++;
+  }
+
+  /**
+   * @return maximum number of buffers this pool will allocate
+   */
+  public synchronized int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return size in bytes of each buffer
+   */
+  public synchronized int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * @return number of buffers currently queued with the camera, waiting to be filled
+   */
+  public synchronized int getQueuedCount() {
+    return queuedCount;
+  }
+
+  /**
+   * @return number of times a buffer was handed to the camera without allocating
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return number of times a buffer had to be allocated
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+}
@@ -16,10 +16,11 @@
 
 package com.feng.qrcode.camera;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 import android.graphics.Point;
 import android.hardware.Camera;
-import android.os.Handler;
-import android.os.Message;
 import android.util.Log;
 
 final class PreviewCallback implements Camera.PreviewCallback {
@@ -27,29 +28,50 @@ final class PreviewCallback implements Camera.PreviewCallback {
   private static final String TAG = PreviewCallback.class.getSimpleName();
 
   private final CameraConfigurationManager configManager;
-  private Handler previewHandler;
-  private int previewMessage;
+  private final PreviewBufferPool bufferPool;
+  // Callbacks waiting for a frame; each frame goes to the one which asked first
+  private final Deque<FrameCallback> previewCallbacks;
 
-  PreviewCallback(CameraConfigurationManager configManager) {
+  PreviewCallback(CameraConfigurationManager configManager, PreviewBufferPool bufferPool) {
     this.configManager = configManager;
+    this.bufferPool = bufferPool;
+    previewCallbacks = new ArrayDeque<FrameCallback>();
+  }
+
+  synchronized void addCallback(FrameCallback previewCallback) {
+    previewCallbacks.add(previewCallback);
+  }
+
+  synchronized void clearCallbacks() {
+    previewCallbacks.clear();
+  }
+
+  private synchronized FrameCallback pollCallback() {
+    return previewCallbacks.poll();
   }
 
-  void setHandler(Handler previewHandler, int previewMessage) {
-    this.previewHandler = previewHandler;
-    this.previewMessage = previewMessage;
+  private synchronized boolean hasCallbacks() {
+    return !previewCallbacks.isEmpty();
   }
 
   @Override
   public void onPreviewFrame(byte[] data, Camera camera) {
+    if (bufferPool != null) {
+      bufferPool.onFrameDelivered();
+    }
     Point cameraResolution = configManager.getCameraResolution();
-    Handler thePreviewHandler = previewHandler;
-    if (cameraResolution != null && thePreviewHandler != null) {
-      Message message = thePreviewHandler.obtainMessage(previewMessage, cameraResolution.x,
-          cameraResolution.y, data);
-      message.sendToTarget();
-      previewHandler = null;
+    FrameCallback thePreviewCallback = cameraResolution == null ? null : pollCallback();
+    if (thePreviewCallback != null) {
+      thePreviewCallback.onPreviewFrame(data, cameraResolution.x, cameraResolution.y);
+      if (bufferPool == null && hasCallbacks()) {
+        // One-shot callbacks have to be re-armed for whoever is still waiting
+        camera.setOneShotPreviewCallback(this);
+      }
+    } else if (bufferPool != null) {
+      // Nobody asked for this frame; give the buffer straight back to the camera
+      bufferPool.recycle(data);
     } else {
-      Log.d(TAG, "Got preview callback, but no handler or resolution available");
+      Log.d(TAG, "Got preview callback, but no frame callback or resolution available");
     }
   }
 
@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.camera;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
+
+/**
+ * Plays back preview frames recorded earlier, as raw NV21 files, at a steady frame rate, so that
+ * the decode pipeline can be driven and profiled without a camera. Files are named like
+ * "shelf_1280x720.nv21" and played in name order.
+ *
+ * Like the camera, it keeps time: a frame which comes due while no callback is waiting, or no
+ * buffer is free, is skipped rather than delayed. Frames are read from disk into a small pool of
+ * buffers on a thread of its own, so a long recording is never held in memory.
+ *
+ * It needs no camera and nothing from Android, so the decode pipeline can also be driven by it on
+ * a plain JVM. The rotation and crop it applies are its own rather than the camera's.
+ */
+public final class ReplayFrameSource implements FrameSource {
+
+  private static final String TAG = ReplayFrameSource.class.getSimpleName();
+
+  private static final Pattern FRAME_NAME = Pattern.compile("(.*)_(\\d+)x(\\d+)\\.(nv21|yuv)");
+
+  private final File[] files;
+  private final int[] widths;
+  private final int[] heights;
+  private final long frameIntervalNanos;
+  private final boolean loop;
+  private final int rotation;
+  // Part of each frame to decode, in rotated coordinates; cropRight < 0 for all of it
+  private final int cropLeft;
+  private final int cropTop;
+  private final int cropRight;
+  private final int cropBottom;
+  // Callbacks waiting for a frame; each frame goes to the one which asked first
+  private final Deque<FrameCallback> callbacks;
+  private final Deque<byte[]> freeBuffers;
+  private int bufferCount;
+  private int buffersInUse;
+  private Thread player;
+  private long deliveredCount;
+  private long skippedCount;
+
+  /**
+   * Decodes the whole of each frame.
+   *
+   * @param directory Holds the recorded frames.
+   * @param framesPerSecond Rate to play them at.
+   * @param loop Whether to start over after the last frame, rather than stop.
+   * @param rotation Clockwise rotation, in degrees, from the frames to upright: 0, 90, 180 or 270.
+   * @throws IOException if the directory holds no recorded frames
+   */
+  public ReplayFrameSource(File directory, float framesPerSecond, boolean loop, int rotation) throws IOException {
+    this(directory, framesPerSecond, loop, rotation, 0, 0, -1, -1);
+  }
+
+  /**
+   * Decodes the part of each frame within a crop rectangle, given in rotated coordinates. A
+   * frame smaller than the rectangle is cropped to the part they have in common.
+   *
+   * @param directory Holds the recorded frames.
+   * @param framesPerSecond Rate to play them at.
+   * @param loop Whether to start over after the last frame, rather than stop.
+   * @param rotation Clockwise rotation, in degrees, from the frames to upright: 0, 90, 180 or 270.
+   * @param cropLeft The left of the crop rectangle.
+   * @param cropTop The top of the crop rectangle.
+   * @param cropWidth The width of the crop rectangle.
+   * @param cropHeight The height of the crop rectangle.
+   * @throws IOException if the directory holds no recorded frames
+   */
+  public ReplayFrameSource(File directory,
+                           float framesPerSecond,
+                           boolean loop,
+                           int rotation,
+                           int cropLeft,
+                           int cropTop,
+                           int cropWidth,
+                           int cropHeight) throws IOException {
+    if (rotation != 0 && rotation != 90 && rotation != 180 && rotation != 270) {
+      throw new IllegalArgumentException("Unsupported rotation: " + rotation);
+    }
+    File[] candidates = directory.listFiles();
+    if (candidates == null) {
+      throw new IOException("Not a directory: " + directory);
+    }
+    Arrays.sort(candidates);
+    List<File> frames = new ArrayList<File>();
+    List<int[]> sizes = new ArrayList<int[]>();
+    for (File candidate : candidates) {
+      Matcher matcher = FRAME_NAME.matcher(candidate.getName());
+      if (matcher.matches()) {
+        frames.add(candidate);
+        sizes.add(new int[] {Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3))});
+      }
+    }
+    if (frames.isEmpty()) {
+      throw new IOException("No recorded frames in " + directory);
+    }
+    files = frames.toArray(new File[frames.size()]);
+    widths = new int[files.length];
+    heights = new int[files.length];
+    for (int i = 0; i < files.length; i++) {
+      widths[i] = sizes.get(i)[0];
+      heights[i] = sizes.get(i)[1];
+    }
+    frameIntervalNanos = (long) (1.0e9 / framesPerSecond);
+    this.loop = loop;
+    this.rotation = rotation;
+    this.cropLeft = cropLeft;
+    this.cropTop = cropTop;
+    this.cropRight = cropWidth < 0 ? -1 : cropLeft + cropWidth;
+    this.cropBottom = cropHeight < 0 ? -1 : cropTop + cropHeight;
+    callbacks = new ArrayDeque<FrameCallback>();
+    freeBuffers = new ArrayDeque<byte[]>();
+    bufferCount = 2;
+  }
+
+  @Override
+  public synchronized void startPreview() {
+    if (player == null) {
+      player = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          play();
+        }
+      }, TAG);
+      player.setDaemon(true);
+      player.start();
+    }
+  }
+
+  @Override
+  public void stopPreview() {
+    Thread thePlayer;
+    synchronized (this) {
+      thePlayer = player;
+      player = null;
+      callbacks.clear();
+    }
+    if (thePlayer != null) {
+      thePlayer.interrupt();
+      try {
+        thePlayer.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public synchronized void setPreviewBufferCount(int count) {
+    bufferCount = count;
+  }
+
+  @Override
+  public synchronized void requestPreviewFrame(FrameCallback callback) {
+    if (player != null) {
+      callbacks.add(callback);
+    }
+  }
+
+  @Override
+  public synchronized void releasePreviewFrame(byte[] data) {
+    buffersInUse--;
+    if (buffersInUse + freeBuffers.size() < bufferCount) {
+      freeBuffers.push(data);
+    }
+  }
+
+  @Override
+  public RotatedPlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
+    boolean swap = rotation == 90 || rotation == 270;
+    int left = 0;
+    int top = 0;
+    int right = swap ? height : width;
+    int bottom = swap ? width : height;
+    if (cropRight >= 0) {
+      left = Math.max(left, cropLeft);
+      top = Math.max(top, cropTop);
+      right = Math.min(right, cropRight);
+      bottom = Math.min(bottom, cropBottom);
+    }
+    if (left >= right || top >= bottom) {
+      return null;
+    }
+    return new RotatedPlanarYUVLuminanceSource(data, width, height, rotation, left, top, right - left, bottom - top);
+  }
+
+  /**
+   * @return number of recorded frames played in each pass
+   */
+  public int getFrameCount() {
+    return files.length;
+  }
+
+  /**
+   * @return number of frames handed to a callback so far
+   */
+  public synchronized long getDeliveredCount() {
+    return deliveredCount;
+  }
+
+  /**
+   * @return number of frames which came due while no callback or buffer was free, or which could
+   *  not be read
+   */
+  public synchronized long getSkippedCount() {
+    return skippedCount;
+  }
+
+  private void play() {
+    long due = System.nanoTime();
+    int index = 0;
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        long wait = due - System.nanoTime();
+        if (wait > 0L) {
+          Thread.sleep(wait / 1000000L, (int) (wait % 1000000L));
+        }
+        due += frameIntervalNanos;
+        if (index == files.length) {
+          if (!loop) {
+            return;
+          }
+          index = 0;
+        }
+        int frame = index++;
+        int size = widths[frame] * heights[frame] * 3 / 2;
+
+        FrameCallback callback;
+        byte[] buffer;
+        synchronized (this) {
+          callback = callbacks.peek();
+          buffer = callback == null ? null : takeBuffer(size);
+          if (buffer == null) {
+            skippedCount++;
+            continue;
+          }
+          callbacks.poll();
+        }
+        try {
+          readFrame(files[frame], buffer, widths[frame] * heights[frame]);
+        } catch (IOException ioe) {
+          // Unreadable frames are skipped, as a camera drops a frame it can't deliver
+          synchronized (this) {
+            callbacks.addFirst(callback);
+            skippedCount++;
+          }
+          releasePreviewFrame(buffer);
+          continue;
+        }
+        synchronized (this) {
+          deliveredCount++;
+        }
+        callback.onPreviewFrame(buffer, widths[frame], heights[frame]);
+      }
+    } catch (InterruptedException ie) {
+      // Stopped
+    }
+  }
+
+  /**
+   * @return a buffer of exactly the given size, or null if all are in use
+   */
+  private byte[] takeBuffer(int size) {
+    byte[] buffer = freeBuffers.poll();
+    if (buffer == null && buffersInUse >= bufferCount) {
+      return null;
+    }
+    if (buffer == null || buffer.length != size) {
+      // Frames of a new size; let the old buffer go
+      buffer = new byte[size];
+    }
+    buffersInUse++;
+    return buffer;
+  }
+
+  /**
+   * Reads as much of the frame as the file holds, which must be at least the Y plane.
+   */
+  private static void readFrame(File file, byte[] buffer, int minimumSize) throws IOException {
+    InputStream in = new FileInputStream(file);
+    try {
+      int offset = 0;
+      while (offset < buffer.length) {
+        int read = in.read(buffer, offset, buffer.length - offset);
+        if (read < 0) {
+          break;
+        }
+        offset += read;
+      }
+      if (offset < minimumSize) {
+        throw new IOException("Shorter than " + minimumSize + " bytes");
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+}
@@ -16,6 +16,7 @@
 
 package com.feng.qrcode.capture;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
@@ -45,9 +46,12 @@ import com.feng.qrcode.BeepManager;
 import com.feng.qrcode.FinishListener;
 import com.feng.qrcode.InactivityTimer;
 import com.feng.qrcode.IntentSource;
+import com.feng.qrcode.QRcodeConfig;
 import com.feng.qrcode.QRcodeIntents;
 import com.feng.qrcode.R;
 import com.feng.qrcode.camera.CameraManager;
+import com.feng.qrcode.camera.FrameSource;
+import com.feng.qrcode.camera.ReplayFrameSource;
 import com.feng.qrcode.view.ViewfinderView;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
@@ -81,6 +85,7 @@ public final class CaptureActivity extends Activity implements SurfaceHolder.Cal
   private InactivityTimer inactivityTimer;
   private BeepManager beepManager;
   private AmbientLightManager ambientLightManager;
+  private static ScanResultListener scanResultListener;
 
   ViewfinderView getViewfinderView() {
     return viewfinderView;
@@ -94,6 +99,17 @@ public final class CaptureActivity extends Activity implements SurfaceHolder.Cal
     return cameraManager;
   }
 
+  /**
+   * Sets who receives the barcodes found while scanning continuously, which is enabled by
+   * {@link QRcodeConfig#KEY_CONTINUOUS_SCAN}. It is held statically, as the activity is started by
+   * an intent, so clear it with null once done.
+   *
+   * @param listener Receives each new barcode, or null.
+   */
+  public static void setScanResultListener(ScanResultListener listener) {
+    scanResultListener = listener;
+  }
+
   @Override
   public void onCreate(Bundle icicle) {
     super.onCreate(icicle);
@@ -228,7 +244,8 @@ public final class CaptureActivity extends Activity implements SurfaceHolder.Cal
         savedResultToShow = result;
       }
       if (savedResultToShow != null) {
-        Message message = Message.obtain(handler, R.id.decode_succeeded, savedResultToShow);
+        Message message = Message.obtain(handler, R.id.decode_succeeded,
+                                         new DecodedBarcode(savedResultToShow, null));
         handler.sendMessage(message);
       }
       savedResultToShow = null;
@@ -259,13 +276,20 @@ public final class CaptureActivity extends Activity implements SurfaceHolder.Cal
   /**
    * A valid barcode has been found, so give an indication of success and show the results.
    *
-   * @param rawResult The contents of the barcode.
-   * @param scaleFactor amount by which thumbnail was scaled
-   * @param barcode   A greyscale bitmap of the camera data which was decoded.
+   * @param decoded The contents of the barcode, and a thumbnail of the camera data which was
+   *  decoded, rendered only if needed.
    */
-  public void handleDecode(Result rawResult, Bitmap barcode, float scaleFactor) {
+  void handleDecode(DecodedBarcode decoded) {
     inactivityTimer.onActivity();
-    lastResult = rawResult;
+    if (QRcodeConfig.KEY_CONTINUOUS_SCAN) {
+      // Keep scanning; the decoders already dropped repeats
+      ScanResultListener listener = scanResultListener;
+      if (listener != null) {
+        listener.onScanResult(decoded.getResult(), decoded.getBitmap());
+      }
+      return;
+    }
+    lastResult = decoded.getResult();
     
     if(!TextUtils.isEmpty(lastResult.getText())){
     	Intent intent = new Intent();
@@ -282,15 +306,18 @@ public final class CaptureActivity extends Activity implements SurfaceHolder.Cal
     if (surfaceHolder == null) {
       throw new IllegalStateException("No SurfaceHolder provided");
     }
-    if (cameraManager.isOpen()) {
+    if (cameraManager.isOpen() || (handler != null && QRcodeConfig.KEY_REPLAY_FRAMES_DIR != null)) {
       Log.w(TAG, "initCamera() while already open -- late SurfaceView callback?");
       return;
     }
     try {
-      cameraManager.openDriver(surfaceHolder);
+      // Recorded frames need no camera
+      if (QRcodeConfig.KEY_REPLAY_FRAMES_DIR == null) {
+        cameraManager.openDriver(surfaceHolder);
+      }
       // Creating the handler starts the preview, which can also throw a RuntimeException.
       if (handler == null) {
-        handler = new CaptureActivityHandler(this, decodeFormats, decodeHints, characterSet, cameraManager);
+        handler = new CaptureActivityHandler(this, decodeFormats, decodeHints, characterSet, getFrameSource());
       }
       decodeOrStoreSavedBitmap(null, null);
     } catch (IOException ioe) {
@@ -304,6 +331,20 @@ public final class CaptureActivity extends Activity implements SurfaceHolder.Cal
     }
   }
 
+  /**
+   * @return the camera, or recorded frames if {@link QRcodeConfig#KEY_REPLAY_FRAMES_DIR} is set
+   */
+  private FrameSource getFrameSource() throws IOException {
+    if (QRcodeConfig.KEY_REPLAY_FRAMES_DIR == null) {
+      return cameraManager;
+    }
+    Log.i(TAG, "Replaying frames from " + QRcodeConfig.KEY_REPLAY_FRAMES_DIR);
+    return new ReplayFrameSource(new File(QRcodeConfig.KEY_REPLAY_FRAMES_DIR),
+                                 QRcodeConfig.KEY_REPLAY_FRAMES_PER_SECOND,
+                                 true,
+                                 QRcodeConfig.KEY_REPLAY_ROTATION);
+  }
+
   private void displayFrameworkBugMessageAndExit() {
     AlertDialog.Builder builder = new AlertDialog.Builder(this);
     builder.setTitle(getString(R.string.app_name));
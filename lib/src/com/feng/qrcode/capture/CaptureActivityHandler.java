@@ -18,27 +18,26 @@ package com.feng.qrcode.capture;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import android.app.Activity;
 import android.content.ActivityNotFoundException;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
-import android.os.Bundle;
 import android.os.Handler;
 import android.os.Message;
 import android.provider.Browser;
 import android.util.Log;
 
+import com.feng.qrcode.QRcodeConfig;
 import com.feng.qrcode.R;
-import com.feng.qrcode.camera.CameraManager;
+import com.feng.qrcode.camera.FrameSource;
 import com.feng.qrcode.view.ViewfinderResultPointCallback;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
-import com.google.zxing.Result;
+import com.google.zxing.DecodeTracer;
 
 /**
  * This class handles all the messaging which comprises the state machine for capture.
@@ -49,10 +48,19 @@ public final class CaptureActivityHandler extends Handler {
 
   private static final String TAG = CaptureActivityHandler.class.getSimpleName();
 
+  private static final int MAX_DECODE_THREADS = 4;
+
   private final CaptureActivity activity;
-  private final DecodeThread decodeThread;
+  private final DecodeThread[] decodeThreads;
+  // Set by the first decode thread to find a barcode; the others then drop their frames
+  private final AtomicBoolean resultFound;
+  private final FrameCounters frameCounters;
+  // Only when scanning continuously: drops repeats of recent results
+  private final DuplicateFilter duplicateFilter;
+  private final DecodeTracer decodeTracer;
+  private final FlightRecorder flightRecorder;
   private State state;
-  private final CameraManager cameraManager;
+  private final FrameSource frameSource;
 
   private enum State {
     PREVIEW,
@@ -64,16 +72,39 @@ public final class CaptureActivityHandler extends Handler {
                          Collection<BarcodeFormat> decodeFormats,
                          Map<DecodeHintType,?> baseHints,
                          String characterSet,
-                         CameraManager cameraManager) {
+                         FrameSource frameSource) {
     this.activity = activity;
-    decodeThread = new DecodeThread(activity, decodeFormats, baseHints, characterSet,
-        new ViewfinderResultPointCallback(activity.getViewfinderView()));
-    decodeThread.start();
+    resultFound = new AtomicBoolean();
+    frameCounters = new FrameCounters();
+    if (QRcodeConfig.KEY_CONTINUOUS_SCAN) {
+      duplicateFilter = new DuplicateFilter(QRcodeConfig.KEY_DUPLICATE_WINDOW_MS,
+                                            QRcodeConfig.KEY_DUPLICATE_CACHE_SIZE);
+    } else {
+      duplicateFilter = null;
+    }
+    decodeTracer = QRcodeConfig.KEY_DECODE_TRACING ? new DecodeTracer() : null;
+    if (QRcodeConfig.KEY_FLIGHT_RECORDER_FRAMES > 0) {
+      flightRecorder = new FlightRecorder(QRcodeConfig.KEY_FLIGHT_RECORDER_FRAMES);
+    } else {
+      flightRecorder = null;
+    }
+    ViewfinderResultPointCallback resultPointCallback =
+        new ViewfinderResultPointCallback(activity.getViewfinderView());
+    decodeThreads = new DecodeThread[getDecodeThreadCount()];
+    for (int i = 0; i < decodeThreads.length; i++) {
+      decodeThreads[i] = new DecodeThread(activity, decodeFormats, baseHints, characterSet,
+          frameSource, resultPointCallback, resultFound, frameCounters, duplicateFilter, decodeTracer,
+          flightRecorder);
+      decodeThreads[i].start();
+    }
+    Log.i(TAG, "Decoding with " + decodeThreads.length + " threads");
     state = State.SUCCESS;
 
-    // Start ourselves capturing previews and decoding.
-    this.cameraManager = cameraManager;
-    cameraManager.startPreview();
+    // Start ourselves capturing previews and decoding. Each decode thread holds on to one frame,
+    // and the camera needs one more to fill in the meantime.
+    this.frameSource = frameSource;
+    frameSource.setPreviewBufferCount(decodeThreads.length + 1);
+    frameSource.startPreview();
     restartPreviewAndDecode();
   }
 
@@ -85,27 +116,19 @@ public final class CaptureActivityHandler extends Handler {
       }
       
       if(message.what == R.id.decode_succeeded){
-    	  state = State.SUCCESS;
-          Bundle bundle = message.getData();
-          Bitmap barcode = null;
-          float scaleFactor = 1.0f;
-          if (bundle != null) {
-            byte[] compressedBitmap = bundle.getByteArray(DecodeThread.BARCODE_BITMAP);
-            if (compressedBitmap != null) {
-              barcode = BitmapFactory.decodeByteArray(compressedBitmap, 0, compressedBitmap.length, null);
-              // Mutable copy:
-              barcode = barcode.copy(Bitmap.Config.ARGB_8888, true);
-            }
-            scaleFactor = bundle.getFloat(DecodeThread.BARCODE_SCALED_FACTOR);          
+          // When scanning continuously the decoders carry on; they ask for frames themselves
+          if (duplicateFilter == null) {
+            state = State.SUCCESS;
           }
-          activity.handleDecode((Result) message.obj, barcode, scaleFactor);
+          activity.handleDecode((DecodedBarcode) message.obj);
     	  return;
       }
       
       if(message.what == R.id.decode_failed){
-    	  // We're decoding as fast as possible, so when one decode fails, start another.
-          state = State.PREVIEW;
-          cameraManager.requestPreviewFrame(decodeThread.getHandler(), R.id.decode);
+    	  // We're decoding as fast as possible, so when one decode fails, give that decoder another frame.
+          if (state == State.PREVIEW) {
+            frameSource.requestPreviewFrame((DecodeHandler) message.obj);
+          }
     	  return;
       }
       
@@ -149,14 +172,23 @@ public final class CaptureActivityHandler extends Handler {
 
   public void quitSynchronously() {
     state = State.DONE;
-    cameraManager.stopPreview();
-    Message quit = Message.obtain(decodeThread.getHandler(), R.id.quit);
-    quit.sendToTarget();
-    try {
-      // Wait at most half a second; should be enough time, and onPause() will timeout quickly
-      decodeThread.join(500L);
-    } catch (InterruptedException e) {
-      // continue
+    frameSource.stopPreview();
+    for (DecodeThread decodeThread : decodeThreads) {
+      Message quit = Message.obtain(decodeThread.getHandler(), R.id.quit);
+      quit.sendToTarget();
+    }
+    // Wait at most half a second in all; should be enough time, and onPause() will timeout quickly
+    long deadline = System.currentTimeMillis() + 500L;
+    for (DecodeThread decodeThread : decodeThreads) {
+      long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0L) {
+        break;
+      }
+      try {
+        decodeThread.join(remaining);
+      } catch (InterruptedException e) {
+        // continue
+      }
     }
 
     // Be absolutely sure we don't send any queued up messages
@@ -164,12 +196,50 @@ public final class CaptureActivityHandler extends Handler {
     removeMessages(R.id.decode_failed);
   }
 
+  /**
+   * @return what happened to the preview frames decoded so far
+   */
+  public FrameCounters getFrameCounters() {
+    return frameCounters;
+  }
+
+  /**
+   * @return per-stage decode latencies of all decode threads, or null if
+   *  {@link QRcodeConfig#KEY_DECODE_TRACING} is off
+   */
+  public DecodeTracer getDecodeTracer() {
+    return decodeTracer;
+  }
+
+  /**
+   * @return the last frames which failed to scan, or null if
+   *  {@link QRcodeConfig#KEY_FLIGHT_RECORDER_FRAMES} is 0
+   */
+  public FlightRecorder getFlightRecorder() {
+    return flightRecorder;
+  }
+
   private void restartPreviewAndDecode() {
     if (state == State.SUCCESS) {
       state = State.PREVIEW;
-      cameraManager.requestPreviewFrame(decodeThread.getHandler(), R.id.decode);
+      resultFound.set(false);
+      if (duplicateFilter != null) {
+        duplicateFilter.clear();
+      }
+      for (DecodeThread decodeThread : decodeThreads) {
+        frameSource.requestPreviewFrame(decodeThread.getHandler());
+      }
       activity.drawViewfinder();
     }
   }
 
+  private static int getDecodeThreadCount() {
+    int count = QRcodeConfig.KEY_DECODE_THREAD_COUNT;
+    if (count <= 0) {
+      // Leave one core for the preview and UI
+      count = Runtime.getRuntime().availableProcessors() - 1;
+    }
+    return Math.max(1, Math.min(count, MAX_DECODE_THREADS));
+  }
+
 }
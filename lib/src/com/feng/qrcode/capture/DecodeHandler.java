@@ -16,37 +16,52 @@
 
 package com.feng.qrcode.capture;
 
-import java.io.ByteArrayOutputStream;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import android.graphics.Bitmap;
-import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 import android.util.Log;
 
 import com.feng.qrcode.R;
-import com.google.zxing.BinaryBitmap;
+import com.feng.qrcode.camera.FrameCallback;
+import com.feng.qrcode.camera.FrameSource;
 import com.google.zxing.DecodeHintType;
-import com.google.zxing.MultiFormatReader;
-import com.google.zxing.PlanarYUVLuminanceSource;
-import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
-import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
 
-final class DecodeHandler extends Handler {
+final class DecodeHandler extends Handler implements FrameCallback {
 
   private static final String TAG = DecodeHandler.class.getSimpleName();
 
   private final CaptureActivity activity;
-  private final MultiFormatReader multiFormatReader;
+  private final FrameSource frameSource;
+  private final FrameDecoder frameDecoder;
+  private final AtomicBoolean resultFound;
+  private final DuplicateFilter duplicateFilter;
   private boolean running = true;
 
-  DecodeHandler(CaptureActivity activity, Map<DecodeHintType,Object> hints) {
-    multiFormatReader = new MultiFormatReader();
-    multiFormatReader.setHints(hints);
+  DecodeHandler(CaptureActivity activity,
+                FrameSource frameSource,
+                Map<DecodeHintType,Object> hints,
+                AtomicBoolean resultFound,
+                FrameCounters frameCounters,
+                DuplicateFilter duplicateFilter,
+                FlightRecorder flightRecorder) {
     this.activity = activity;
+    this.frameSource = frameSource;
+    this.resultFound = resultFound;
+    this.duplicateFilter = duplicateFilter;
+    frameDecoder = new FrameDecoder(hints, frameCounters, flightRecorder);
+  }
+
+  /**
+   * Called by the frame source on its own thread; the frame is decoded on this handler's thread.
+   */
+  @Override
+  public void onPreviewFrame(byte[] data, int width, int height) {
+    obtainMessage(R.id.decode, width, height, data).sendToTarget();
   }
 
   @Override
@@ -68,8 +83,10 @@ final class DecodeHandler extends Handler {
   }
 
   /**
-   * Decode the data within the viewfinder rectangle, and time how long it took. For efficiency,
-   * reuse the same reader objects from one decode to the next.
+   * Decode the data within the viewfinder rectangle with this thread's {@link FrameDecoder}, and
+   * time how long it took. Frames which arrive after another decode thread already found a result
+   * are stale, and are dropped without decoding. When scanning continuously, every new result is
+   * reported, repeats are dropped, and decoding carries on.
    *
    * @param data   The YUV preview frame.
    * @param width  The width of the preview frame.
@@ -77,64 +94,44 @@ final class DecodeHandler extends Handler {
    */
   private void decode(byte[] data, int width, int height) {
     long start = System.currentTimeMillis();
-    Result rawResult = null;
-    
-    
-    //PlanarYUVLuminanceSource source = activity.getCameraManager().buildLuminanceSource(data, width, height);
-    
-    
-    byte[] rotatedData = new byte[data.length];
-    for (int y = 0; y < height; y++) {
-        for (int x = 0; x < width; x++)
-            rotatedData[x * height + height - y - 1] = data[x + y * width];
-    }
-    int tmp = width;
-    width = height;
-    height = tmp;
-    PlanarYUVLuminanceSource source = activity.getCameraManager().buildLuminanceSource(rotatedData, width, height);
-    
-    
-    
-    if (source != null) {
-      BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-      try {
-        rawResult = multiFormatReader.decodeWithState(bitmap);
-      } catch (ReaderException re) {
-        // continue
-      } finally {
-        multiFormatReader.reset();
-      }
+    boolean continuous = duplicateFilter != null;
+    if (!continuous && resultFound.get()) {
+      frameSource.releasePreviewFrame(data);
+      return;
     }
+    RotatedPlanarYUVLuminanceSource source = frameDecoder.buildLuminanceSource(frameSource, data, width, height);
+    Result rawResult = frameDecoder.decode(source);
 
     Handler handler = activity.getHandler();
-    if (rawResult != null) {
+    boolean report;
+    if (rawResult == null) {
+      report = false;
+    } else if (continuous) {
+      report = duplicateFilter.isNew(rawResult, System.currentTimeMillis());
+    } else {
+      report = resultFound.compareAndSet(false, true);
+    }
+    if (report) {
       // Don't log the barcode contents for security.
       long end = System.currentTimeMillis();
       Log.d(TAG, "Found barcode in " + (end - start) + " ms");
       if (handler != null) {
-        Message message = Message.obtain(handler, R.id.decode_succeeded, rawResult);
-        Bundle bundle = new Bundle();
-        bundleThumbnail(source, bundle);        
-        message.setData(bundle);
+        // Only a listener of a continuous scan is shown the thumbnail, so a single-shot scan hands
+        // over just the result. The thumbnail goes as luminance, and only becomes a bitmap if shown.
+        DecodedBarcode decoded = new DecodedBarcode(rawResult, continuous ? source : null);
+        Message message = Message.obtain(handler, R.id.decode_succeeded, decoded);
         message.sendToTarget();
       }
-    } else {
+    }
+    if (continuous || (rawResult == null && !resultFound.get())) {
       if (handler != null) {
-        Message message = Message.obtain(handler, R.id.decode_failed);
+        // Tell the capture handler which decoder is free for another frame
+        Message message = Message.obtain(handler, R.id.decode_failed, this);
         message.sendToTarget();
       }
     }
-  }
-
-  private static void bundleThumbnail(PlanarYUVLuminanceSource source, Bundle bundle) {
-    int[] pixels = source.renderThumbnail();
-    int width = source.getThumbnailWidth();
-    int height = source.getThumbnailHeight();
-    Bitmap bitmap = Bitmap.createBitmap(pixels, 0, width, width, height, Bitmap.Config.ARGB_8888);
-    ByteArrayOutputStream out = new ByteArrayOutputStream();    
-    bitmap.compress(Bitmap.CompressFormat.JPEG, 50, out);
-    bundle.putByteArray(DecodeThread.BARCODE_BITMAP, out.toByteArray());
-    bundle.putFloat(DecodeThread.BARCODE_SCALED_FACTOR, (float) width / source.getWidth());
+    // Nothing refers to the frame any more, so its buffer can go back to the camera
+    frameSource.releasePreviewFrame(data);
   }
 
 }
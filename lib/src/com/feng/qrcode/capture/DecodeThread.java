@@ -21,41 +21,57 @@ import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import android.content.SharedPreferences;
-import android.os.Handler;
 import android.os.Looper;
 import android.preference.PreferenceManager;
 import android.util.Log;
 
 import com.feng.qrcode.DecodeFormatManager;
 import com.feng.qrcode.QRcodeConfig;
+import com.feng.qrcode.camera.FrameSource;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeTracer;
 import com.google.zxing.ResultPointCallback;
 
 /**
- * This thread does all the heavy lifting of decoding the images.
+ * This thread does all the heavy lifting of decoding the images. Several of these may run at
+ * once, each decoding its own frame; they share a flag so that only the first result is reported.
  *
  * @author dswitkin@google.com (Daniel Switkin)
  */
 final class DecodeThread extends Thread {
 
-  public static final String BARCODE_BITMAP = "barcode_bitmap";
-  public static final String BARCODE_SCALED_FACTOR = "barcode_scaled_factor";
-
   private final CaptureActivity activity;
+  private final FrameSource frameSource;
   private final Map<DecodeHintType,Object> hints;
-  private Handler handler;
+  private final AtomicBoolean resultFound;
+  private final FrameCounters frameCounters;
+  private final DuplicateFilter duplicateFilter;
+  private final FlightRecorder flightRecorder;
+  private DecodeHandler handler;
   private final CountDownLatch handlerInitLatch;
 
   DecodeThread(CaptureActivity activity,
                Collection<BarcodeFormat> decodeFormats,
                Map<DecodeHintType,?> baseHints,
                String characterSet,
-               ResultPointCallback resultPointCallback) {
+               FrameSource frameSource,
+               ResultPointCallback resultPointCallback,
+               AtomicBoolean resultFound,
+               FrameCounters frameCounters,
+               DuplicateFilter duplicateFilter,
+               DecodeTracer decodeTracer,
+               FlightRecorder flightRecorder) {
 
     this.activity = activity;
+    this.frameSource = frameSource;
+    this.resultFound = resultFound;
+    this.frameCounters = frameCounters;
+    this.duplicateFilter = duplicateFilter;
+    this.flightRecorder = flightRecorder;
     handlerInitLatch = new CountDownLatch(1);
 
     hints = new EnumMap<DecodeHintType, Object>(DecodeHintType.class);
@@ -92,10 +108,16 @@ final class DecodeThread extends Thread {
       hints.put(DecodeHintType.CHARACTER_SET, characterSet);
     }
     hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, resultPointCallback);
+    if (decodeTracer != null) {
+      hints.put(DecodeHintType.DECODE_TRACER, decodeTracer);
+    }
     Log.i("DecodeThread", "Hints: " + hints);
+    if (flightRecorder != null) {
+      flightRecorder.setHints(hints);
+    }
   }
 
-  Handler getHandler() {
+  DecodeHandler getHandler() {
     try {
       handlerInitLatch.await();
     } catch (InterruptedException ie) {
@@ -107,7 +129,8 @@ final class DecodeThread extends Thread {
   @Override
   public void run() {
     Looper.prepare();
-    handler = new DecodeHandler(activity, hints);
+    handler = new DecodeHandler(activity, frameSource, hints, resultFound, frameCounters, duplicateFilter,
+        flightRecorder);
     handlerInitLatch.countDown();
     Looper.loop();
   }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import android.graphics.Bitmap;
+
+import com.google.zxing.Result;
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
+
+/**
+ * A decoded barcode on its way from a decode thread to the main thread, with a greyscale thumbnail
+ * of the camera data it was found in. The thumbnail is kept as one byte per pixel and only turned
+ * into a {@link Bitmap} if something asks for it.
+ */
+final class DecodedBarcode {
+
+  private final Result result;
+  private final byte[] thumbnail;
+  private final int thumbnailWidth;
+  private final int thumbnailHeight;
+  private Bitmap bitmap;
+
+  /**
+   * @param result The barcode found.
+   * @param source The camera data it was found in, or null if there is none to show. Its buffer
+   *  may be reused as soon as this returns.
+   */
+  DecodedBarcode(Result result, RotatedPlanarYUVLuminanceSource source) {
+    this.result = result;
+    if (source == null) {
+      thumbnail = null;
+      thumbnailWidth = 0;
+      thumbnailHeight = 0;
+    } else {
+      thumbnail = source.getThumbnailMatrix();
+      thumbnailWidth = source.getThumbnailWidth();
+      thumbnailHeight = source.getThumbnailHeight();
+    }
+  }
+
+  Result getResult() {
+    return result;
+  }
+
+  /**
+   * Renders the thumbnail the first time it is asked for. Call on the main thread only.
+   *
+   * @return a mutable greyscale bitmap of the camera data which was decoded, or null if none
+   */
+  Bitmap getBitmap() {
+    if (bitmap == null && thumbnail != null && thumbnailWidth > 0 && thumbnailHeight > 0) {
+      int[] pixels = new int[thumbnailWidth * thumbnailHeight];
+      for (int i = 0; i < pixels.length; i++) {
+        pixels[i] = 0xFF000000 | ((thumbnail[i] & 0xff) * 0x00010101);
+      }
+      bitmap = Bitmap.createBitmap(thumbnailWidth, thumbnailHeight, Bitmap.Config.ARGB_8888);
+      bitmap.setPixels(pixels, 0, thumbnailWidth, 0, 0, thumbnailWidth, thumbnailHeight);
+    }
+    return bitmap;
+  }
+
+}
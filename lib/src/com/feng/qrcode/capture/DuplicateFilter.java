@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.zxing.Result;
+
+/**
+ * Suppresses results which repeat one seen recently, so that a barcode held in view while scanning
+ * continuously is reported once. A result counts as a repeat if the same text in the same format
+ * was seen within the window; every sighting restarts the window. Only the most recently seen
+ * barcodes are remembered, keyed by a 64-bit hash of their contents. Shared by the decode threads.
+ */
+final class DuplicateFilter {
+
+  private final long windowMs;
+  private final Map<Long,Long> lastSeen;
+
+  /**
+   * @param windowMs How long after it was last seen a barcode counts as a repeat.
+   * @param capacity How many barcodes to remember.
+   */
+  DuplicateFilter(long windowMs, final int capacity) {
+    this.windowMs = windowMs;
+    lastSeen = new LinkedHashMap<Long,Long>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long,Long> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * @param result A barcode just decoded.
+   * @param now Current time in ms.
+   * @return true unless the same barcode was seen within the window
+   */
+  synchronized boolean isNew(Result result, long now) {
+    Long key = hash(result);
+    Long previous = lastSeen.put(key, now);
+    return previous == null || now - previous >= windowMs;
+  }
+
+  synchronized void clear() {
+    lastSeen.clear();
+  }
+
+  /**
+   * 64-bit FNV-1a over the format and text, so that distinct barcodes practically never collide.
+   */
+  private static long hash(Result result) {
+    long hash = 0xcbf29ce484222325L;
+    hash = (hash ^ result.getBarcodeFormat().ordinal()) * 0x100000001b3L;
+    String text = result.getText();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      hash = (hash ^ (c & 0xFF)) * 0x100000001b3L;
+      hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+}
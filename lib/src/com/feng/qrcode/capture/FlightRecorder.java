@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.zxing.DecodeFailure;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Keeps the luminance of the last frames which failed to scan, so that when a scan goes wrong in
+ * the field there is something to look at. Each frame is kept with why it failed and which part
+ * of it was decoded, and the whole ring can be dumped to a compact file and replayed through the
+ * decoder offline.
+ *
+ * Memory is fixed: a ring of slots, each holding one framing rectangle's worth of luminance,
+ * allocated the first time it is filled and reused from then on. Shared by the decode threads.
+ *
+ * The dump is gzipped; inside, all numbers are big-endian:
+ * <pre>
+ * int magic 0x51524652 ("QRFR"), int version 1, UTF hints, int frame count, then per frame, oldest
+ * first: long time in ms, byte {@link Outcome} ordinal, int width, int height, int left, int top,
+ * int width and int height of the part decoded, then width * height luminance bytes, row by row.
+ * </pre>
+ */
+public final class FlightRecorder {
+
+  private static final int MAGIC = 0x51524652;
+  private static final int VERSION = 1;
+
+  /**
+   * How far a recorded frame got.
+   */
+  public enum Outcome {
+    /** Turned away before decoding as too flat or blurry. */
+    LOW_QUALITY,
+    /** Decoded, but no barcode was found. */
+    NOT_FOUND,
+    /** A barcode was found, but its error correction or checksum failed. */
+    CHECKSUM,
+    /** A barcode was found and corrected, but its content broke the format's rules. */
+    FORMAT;
+
+    static Outcome forFailure(DecodeFailure failure) {
+      switch (failure) {
+        case CHECKSUM:
+          return CHECKSUM;
+        case FORMAT:
+          return FORMAT;
+        default:
+          return NOT_FOUND;
+      }
+    }
+  }
+
+  private final Slot[] slots;
+  private final AtomicLong nextSequence;
+  private volatile String hints;
+
+  /**
+   * @param capacity Number of frames to keep.
+   */
+  public FlightRecorder(int capacity) {
+    slots = new Slot[capacity];
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new Slot();
+    }
+    nextSequence = new AtomicLong();
+    hints = "";
+  }
+
+  /**
+   * Notes the hints the frames are decoded with. Only the names of hints whose values are
+   * objects, like callbacks, are kept.
+   */
+  void setHints(Map<DecodeHintType,?> decodeHints) {
+    StringBuilder result = new StringBuilder();
+    for (Map.Entry<DecodeHintType,?> entry : decodeHints.entrySet()) {
+      if (result.length() > 0) {
+        result.append(", ");
+      }
+      result.append(entry.getKey());
+      Object value = entry.getValue();
+      if (value instanceof Collection || value instanceof String || value instanceof Boolean) {
+        result.append('=').append(value);
+      } else if (value instanceof int[]) {
+        result.append('=').append(Arrays.toString((int[]) value));
+      }
+    }
+    hints = result.toString();
+  }
+
+  /**
+   * Keeps a copy of a frame which failed to scan, overwriting the oldest one kept.
+   *
+   * @param source The framing rectangle of the frame.
+   * @param outcome How far it got.
+   * @param regionLeft Left of the part decoded, within the framing rectangle. The region is all 0
+   *  if the frame was not decoded at all.
+   * @param regionTop Top of the part decoded.
+   * @param regionWidth Width of the part decoded.
+   * @param regionHeight Height of the part decoded.
+   */
+  void record(LuminanceSource source,
+              Outcome outcome,
+              int regionLeft,
+              int regionTop,
+              int regionWidth,
+              int regionHeight) {
+    long sequence = nextSequence.getAndIncrement();
+    Slot slot = slots[(int) (sequence % slots.length)];
+    synchronized (slot) {
+      int width = source.getWidth();
+      int height = source.getHeight();
+      int size = width * height;
+      if (slot.luminance == null || slot.luminance.length != size) {
+        // Only until the slot has seen a frame of this size
+        slot.luminance = new byte[size];
+        slot.row = new byte[width];
+      }
+      for (int y = 0; y < height; y++) {
+        slot.row = source.getRow(y, slot.row);
+        System.arraycopy(slot.row, 0, slot.luminance, y * width, width);
+      }
+      slot.sequence = sequence;
+      slot.time = System.currentTimeMillis();
+      slot.outcome = outcome;
+      slot.width = width;
+      slot.height = height;
+      slot.regionLeft = regionLeft;
+      slot.regionTop = regionTop;
+      slot.regionWidth = regionWidth;
+      slot.regionHeight = regionHeight;
+    }
+  }
+
+  /**
+   * Writes every frame kept so far, oldest first, in the format described above. Frames recorded
+   * while dumping may or may not be included.
+   *
+   * @param out Where to write; not closed.
+   * @return number of frames written
+   * @throws IOException if writing fails
+   */
+  public int dump(OutputStream out) throws IOException {
+    Slot[] ordered = slots.clone();
+    Arrays.sort(ordered, new Comparator<Slot>() {
+      @Override
+      public int compare(Slot a, Slot b) {
+        long sa = a.getSequence();
+        long sb = b.getSequence();
+        return sa < sb ? -1 : sa > sb ? 1 : 0;
+      }
+    });
+    int count = 0;
+    for (Slot slot : ordered) {
+      if (slot.getSequence() >= 0L) {
+        count++;
+      }
+    }
+
+    GZIPOutputStream zipped = new GZIPOutputStream(out);
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(zipped));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeUTF(hints);
+    data.writeInt(count);
+    int written = 0;
+    for (Slot slot : ordered) {
+      synchronized (slot) {
+        // Skip slots never filled; a slot refilled since sorting is still written in its place
+        if (slot.sequence < 0L || written == count) {
+          continue;
+        }
+        data.writeLong(slot.time);
+        data.writeByte(slot.outcome.ordinal());
+        data.writeInt(slot.width);
+        data.writeInt(slot.height);
+        data.writeInt(slot.regionLeft);
+        data.writeInt(slot.regionTop);
+        data.writeInt(slot.regionWidth);
+        data.writeInt(slot.regionHeight);
+        data.write(slot.luminance, 0, slot.width * slot.height);
+        written++;
+      }
+    }
+    data.flush();
+    zipped.finish();
+    return written;
+  }
+
+  /**
+   * Writes every frame kept so far to a file, as {@link #dump(OutputStream)} does.
+   *
+   * @return number of frames written
+   * @throws IOException if writing fails
+   */
+  public int dump(File file) throws IOException {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      return dump(out);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * @return the number of frames recorded since the recorder was created, including ones since
+   *  overwritten
+   */
+  public long getRecordedCount() {
+    return nextSequence.get();
+  }
+
+  private static final class Slot {
+    long sequence = -1L;
+    long time;
+    Outcome outcome;
+    int width;
+    int height;
+    int regionLeft;
+    int regionTop;
+    int regionWidth;
+    int regionHeight;
+    byte[] luminance;
+    byte[] row;
+
+    synchronized long getSequence() {
+      return sequence;
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Skips frames which look the same as the last frame decoded, as when the phone lies still in
+ * front of a scene with no barcode. Each frame is reduced to a 16x16 signature of average
+ * luminances, and the frame is decoded only if its signature differs from the last decoded one
+ * by at least the given mean amount. A frame is decoded regardless once the forced interval has
+ * passed since the last decode, so that a barcode which failed to decode once is tried again.
+ */
+public final class FrameChangeGate implements FrameGate {
+
+  private static final int SIGNATURE_SIZE = 16;
+  // Each cell of the signature sums this many pixels from each of two rows, a quarter and three
+  // quarters of the way down it
+  private static final int SAMPLES_PER_ROW = 4;
+  private static final int SAMPLES_PER_CELL = 2 * SAMPLES_PER_ROW;
+
+  private final int minChange;
+  private final long forcedDecodeIntervalNanos;
+  private int[] signature;
+  private int[] lastSignature;
+  private int lastWidth;
+  private int lastHeight;
+  private long lastDecodeTime;
+  private byte[] row;
+  private int change;
+
+  /**
+   * @param minChange Frames whose average luminance, cell by cell, moved by less than this since
+   *                  the last decoded frame are skipped.
+   * @param forcedDecodeIntervalMs A frame is always decoded if none has been for this long.
+   */
+  public FrameChangeGate(int minChange, long forcedDecodeIntervalMs) {
+    this.minChange = minChange;
+    this.forcedDecodeIntervalNanos = forcedDecodeIntervalMs * 1000000L;
+    signature = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+    lastSignature = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+  }
+
+  @Override
+  public boolean accept(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    if (width < SIGNATURE_SIZE * SAMPLES_PER_ROW || height < SIGNATURE_SIZE * 2) {
+      return true;
+    }
+    computeSignature(source, width, height);
+
+    long now = System.nanoTime();
+    boolean decode;
+    if (width != lastWidth || height != lastHeight || now - lastDecodeTime >= forcedDecodeIntervalNanos) {
+      change = Integer.MAX_VALUE;
+      decode = true;
+    } else {
+      int totalChange = 0;
+      for (int i = 0; i < signature.length; i++) {
+        totalChange += Math.abs(signature[i] - lastSignature[i]);
+      }
+      change = totalChange / (signature.length * SAMPLES_PER_CELL);
+      decode = change >= minChange;
+    }
+
+    if (decode) {
+      int[] temp = lastSignature;
+      lastSignature = signature;
+      signature = temp;
+      lastWidth = width;
+      lastHeight = height;
+      lastDecodeTime = now;
+    }
+    return decode;
+  }
+
+  /**
+   * Sums, for each cell of a 16x16 grid over the frame, a few pixels from two of its rows.
+   */
+  private void computeSignature(LuminanceSource source, int width, int height) {
+    int[] cells = signature;
+    int cellWidth = width / SIGNATURE_SIZE;
+    int cellHeight = height / SIGNATURE_SIZE;
+    int sampleSpacing = cellWidth / SAMPLES_PER_ROW;
+    for (int cellY = 0; cellY < SIGNATURE_SIZE; cellY++) {
+      int offset = cellY * SIGNATURE_SIZE;
+      for (int x = 0; x < SIGNATURE_SIZE; x++) {
+        cells[offset + x] = 0;
+      }
+      int top = cellY * cellHeight;
+      for (int quarter = 1; quarter < 4; quarter += 2) {
+        row = source.getRow(top + quarter * cellHeight / 4, row);
+        byte[] localRow = row;
+        for (int cellX = 0; cellX < SIGNATURE_SIZE; cellX++) {
+          int sum = 0;
+          int x = cellX * cellWidth + sampleSpacing / 2;
+          for (int i = 0; i < SAMPLES_PER_ROW; i++, x += sampleSpacing) {
+            sum += localRow[x] & 0xFF;
+          }
+          cells[offset + cellX] += sum;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return mean change of the last frame checked, out of 255, or {@link Integer#MAX_VALUE} if
+   *  it was decoded without comparing it, for tuning the threshold
+   */
+  public int getChange() {
+    return change;
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts what happened to the preview frames handed to the decode threads, across all of them.
+ */
+public final class FrameCounters {
+
+  private final AtomicLong gated = new AtomicLong();
+  private final AtomicLong unchanged = new AtomicLong();
+  private final AtomicLong decoded = new AtomicLong();
+
+  void frameGated() {
+    gated.incrementAndGet();
+  }
+
+  void frameUnchanged() {
+    unchanged.incrementAndGet();
+  }
+
+  void frameDecoded() {
+    decoded.incrementAndGet();
+  }
+
+  /**
+   * @return number of frames turned away before decoding as too flat or blurry
+   */
+  public long getGatedCount() {
+    return gated.get();
+  }
+
+  /**
+   * @return number of frames skipped because they looked the same as the last one decoded
+   */
+  public long getUnchangedCount() {
+    return unchanged.get();
+  }
+
+  /**
+   * @return number of frames which went through the binarizer and readers
+   */
+  public long getDecodedCount() {
+    return decoded.get();
+  }
+
+  @Override
+  public String toString() {
+    return "gated: " + gated.get() + ", unchanged: " + unchanged.get() + ", decoded: " + decoded.get();
+  }
+
+}
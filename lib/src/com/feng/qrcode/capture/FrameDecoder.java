@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import java.util.Map;
+
+import com.feng.qrcode.QRcodeConfig;
+import com.feng.qrcode.camera.FrameSource;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.DecodeStage;
+import com.google.zxing.DecodeTracer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+import com.google.zxing.RotatedPlanarYUVLuminanceSource;
+import com.google.zxing.common.BinarizerWorkspace;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.common.LuminancePyramid;
+
+/**
+ * Decodes one preview frame after another, as each decode thread does: frames the
+ * {@link FrameGate}s turn away are skipped, a region the readers keep finding candidate points in
+ * is decoded on its own, and otherwise the whole framing rectangle is tried at reduced resolution
+ * before full resolution. The reader, binarizer memory and tracking state are kept from one frame
+ * to the next, so give each decoding thread its own.
+ *
+ * It uses nothing from Android, so the pipeline can also be run on a plain JVM, fed by a
+ * {@link com.feng.qrcode.camera.ReplayFrameSource}.
+ */
+public final class FrameDecoder {
+
+  private final MultiFormatReader multiFormatReader;
+  // One per pyramid level, so that each keeps buffers of its own size
+  private final BinarizerWorkspace[] binarizerWorkspaces;
+  private final LuminancePyramid pyramid;
+  private final FrameCounters frameCounters;
+  private final FrameGate qualityGate;
+  private final FrameGate changeGate;
+  private final RegionTracker regionTracker;
+  private final PointScaler pointScaler;
+  private final DecodeTracer decodeTracer;
+  private final FlightRecorder flightRecorder;
+
+  /**
+   * @param hints Hints for every decode. They must belong to this decoder alone, as its own
+   *              callbacks stand in for the {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK}.
+   * @param frameCounters Counts what happens to each frame; may be shared between threads.
+   * @param flightRecorder Keeps the frames which fail to scan, or null.
+   */
+  public FrameDecoder(Map<DecodeHintType,Object> hints, FrameCounters frameCounters, FlightRecorder flightRecorder) {
+    ResultPointCallback pointCallback =
+        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    if (QRcodeConfig.KEY_TRACK_REGION) {
+      regionTracker = new RegionTracker(pointCallback, QRcodeConfig.KEY_REGION_MISS_BUDGET);
+      pointCallback = regionTracker;
+    } else {
+      regionTracker = null;
+    }
+    if (QRcodeConfig.KEY_PYRAMID_LEVELS > 0) {
+      pyramid = new LuminancePyramid(QRcodeConfig.KEY_PYRAMID_LEVELS, QRcodeConfig.KEY_PYRAMID_MIN_SIZE);
+      binarizerWorkspaces = new BinarizerWorkspace[QRcodeConfig.KEY_PYRAMID_LEVELS + 1];
+      // Points found at reduced resolution are scaled back up before anything else sees them
+      pointScaler = new PointScaler(pointCallback);
+      if (pointCallback != null) {
+        pointCallback = pointScaler;
+      }
+    } else {
+      pyramid = null;
+      binarizerWorkspaces = new BinarizerWorkspace[1];
+      pointScaler = null;
+    }
+    if (pointCallback != null) {
+      hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, pointCallback);
+    }
+    multiFormatReader = new MultiFormatReader();
+    multiFormatReader.setHints(hints);
+    for (int level = 0; level < binarizerWorkspaces.length; level++) {
+      binarizerWorkspaces[level] = new BinarizerWorkspace();
+    }
+    this.frameCounters = frameCounters;
+    this.flightRecorder = flightRecorder;
+    decodeTracer = DecodeTracer.get(hints);
+    if (QRcodeConfig.KEY_FRAME_QUALITY_GATE) {
+      qualityGate = new FrameQualityGate(QRcodeConfig.KEY_MIN_FRAME_CONTRAST,
+                                         QRcodeConfig.KEY_MIN_FRAME_SHARPNESS);
+    } else {
+      qualityGate = null;
+    }
+    if (QRcodeConfig.KEY_FRAME_CHANGE_GATE) {
+      changeGate = new FrameChangeGate(QRcodeConfig.KEY_MIN_FRAME_CHANGE,
+                                       QRcodeConfig.KEY_FORCED_DECODE_INTERVAL_MS);
+    } else {
+      changeGate = null;
+    }
+  }
+
+  /**
+   * Builds the luminance source of a frame, timing it if tracing.
+   *
+   * @return the part of the frame to decode, or null if it is not known yet
+   */
+  public RotatedPlanarYUVLuminanceSource buildLuminanceSource(FrameSource frameSource,
+                                                              byte[] data,
+                                                              int width,
+                                                              int height) {
+    if (decodeTracer == null) {
+      return frameSource.buildLuminanceSource(data, width, height);
+    }
+    long start = System.nanoTime();
+    RotatedPlanarYUVLuminanceSource source = frameSource.buildLuminanceSource(data, width, height);
+    decodeTracer.record(null, DecodeStage.LUMINANCE, System.nanoTime() - start);
+    return source;
+  }
+
+  /**
+   * @param source The frame, or null if there is none to decode.
+   * @return the barcode found, or null if none was
+   */
+  public Result decode(RotatedPlanarYUVLuminanceSource source) {
+    if (source == null) {
+      return null;
+    }
+    // Frames not worth decoding fail straight away, so that this thread gets the next frame.
+    // The change gate goes last, so that it compares against the last frame actually decoded.
+    if (qualityGate != null && !qualityGate.accept(source)) {
+      frameCounters.frameGated();
+      if (flightRecorder != null) {
+        flightRecorder.record(source, FlightRecorder.Outcome.LOW_QUALITY, 0, 0, 0, 0);
+      }
+      return null;
+    }
+    if (changeGate != null && !changeGate.accept(source)) {
+      frameCounters.frameUnchanged();
+      return null;
+    }
+
+    frameCounters.frameDecoded();
+    LuminanceSource decodeSource = source;
+    boolean wholeFrame = true;
+    if (regionTracker != null) {
+      if (regionTracker.hasRegion(source.getWidth(), source.getHeight())) {
+        regionTracker.beginFrame(regionTracker.getRegionLeft(), regionTracker.getRegionTop());
+        decodeSource = source.crop(regionTracker.getRegionLeft(), regionTracker.getRegionTop(),
+                                   regionTracker.getRegionWidth(), regionTracker.getRegionHeight());
+        wholeFrame = false;
+      } else {
+        regionTracker.beginFrame(0, 0);
+      }
+    }
+    // A tracked crop is small already; the whole rectangle is tried coarsest first, as a barcode
+    // filling it decodes at a fraction of the cost
+    int coarsestLevel = 0;
+    if (pyramid != null && wholeFrame) {
+      pyramid.setSource(decodeSource);
+      coarsestLevel = pyramid.getLevelCount() - 1;
+    }
+    Result rawResult = null;
+    DecodeOutcome outcome = null;
+    for (int level = coarsestLevel; level >= 0 && rawResult == null; level--) {
+      LuminanceSource levelSource = level == 0 ? decodeSource : pyramid.getLevel(level);
+      if (pointScaler != null) {
+        pointScaler.setScale(1 << level);
+      }
+      BinaryBitmap bitmap =
+          new BinaryBitmap(new HybridBinarizer(levelSource, binarizerWorkspaces[level]), decodeTracer);
+      try {
+        // A miss is the common case, so don't pay for an exception on every frame
+        outcome = multiFormatReader.tryDecodeWithState(bitmap);
+        rawResult = outcome.getResult();
+      } finally {
+        multiFormatReader.reset();
+      }
+    }
+    if (flightRecorder != null && rawResult == null) {
+      // Before the region tracker moves on to the next region
+      FlightRecorder.Outcome recorded = FlightRecorder.Outcome.forFailure(outcome.getFailure());
+      if (wholeFrame) {
+        flightRecorder.record(source, recorded, 0, 0, source.getWidth(), source.getHeight());
+      } else {
+        flightRecorder.record(source, recorded, regionTracker.getRegionLeft(), regionTracker.getRegionTop(),
+                              regionTracker.getRegionWidth(), regionTracker.getRegionHeight());
+      }
+    }
+    if (rawResult != null && pointScaler != null) {
+      pointScaler.scale(rawResult);
+    }
+    if (regionTracker != null) {
+      regionTracker.endFrame(rawResult, source.getWidth(), source.getHeight());
+    }
+    return rawResult;
+  }
+
+  /**
+   * Scales points found at a reduced resolution up to the resolution of the source decoded.
+   */
+  private static final class PointScaler implements ResultPointCallback {
+
+    private final ResultPointCallback delegate;
+    // How many pixels of the source each decoded pixel covers, each way
+    private int scale;
+
+    PointScaler(ResultPointCallback delegate) {
+      this.delegate = delegate;
+      scale = 1;
+    }
+
+    void setScale(int scale) {
+      this.scale = scale;
+    }
+
+    @Override
+    public void foundPossibleResultPoint(ResultPoint point) {
+      if (delegate != null) {
+        delegate.foundPossibleResultPoint(scale == 1 ? point : scale(point));
+      }
+    }
+
+    /**
+     * Scales the points of a result found at the current scale.
+     */
+    void scale(Result result) {
+      ResultPoint[] points = result.getResultPoints();
+      if (points == null || scale == 1) {
+        return;
+      }
+      for (int i = 0; i < points.length; i++) {
+        if (points[i] != null) {
+          points[i] = scale(points[i]);
+        }
+      }
+    }
+
+    private ResultPoint scale(ResultPoint point) {
+      return new ResultPoint(point.getX() * scale, point.getY() * scale);
+    }
+
+  }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * A cheap check run on each preview frame before it is binarized, which can turn away frames
+ * that have no chance of decoding. Each decode thread has its own gate, so implementations may
+ * keep scratch memory between frames without locking.
+ */
+public interface FrameGate {
+
+  /**
+   * @param source The part of the preview frame which would be decoded.
+   * @return true to decode the frame, false to skip it
+   */
+  boolean accept(LuminanceSource source);
+
+}
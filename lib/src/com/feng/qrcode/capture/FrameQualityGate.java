@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import java.util.Arrays;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * Skips frames which are too flat or too blurry to hold a readable barcode, such as a blank wall
+ * or a frame taken while the camera refocuses. It looks at a grid of about 32x32 pixels spread
+ * over the frame, and for each measures the difference to its right and lower neighbours. The
+ * frame's contrast is the spread between its darkest and lightest 5% of samples. Its sharpness is
+ * the steepness of its sharpest edges: the neighbour difference exceeded by only 2% of samples,
+ * which drops as edges blur. Sensor noise sets a floor under it, so in poor light blur is not
+ * caught, but frames are never skipped because of noise.
+ */
+public final class FrameQualityGate implements FrameGate {
+
+  private static final int GRID_SIZE = 32;
+  // Ignore this fraction of the darkest and of the lightest samples when measuring contrast
+  private static final int OUTLIER_PERCENT = 5;
+  private static final int EDGE_PERCENT = 2;
+
+  private final int minContrast;
+  private final int minSharpness;
+  private final int[] histogram;
+  private final int[] gradientHistogram;
+  private byte[] row;
+  private byte[] nextRow;
+  private int contrast;
+  private int sharpness;
+
+  /**
+   * @param minContrast Frames with less spread between dark and light, out of 255, are skipped.
+   * @param minSharpness Frames whose sharpest edges step by less than this between neighbouring
+   *                     pixels are skipped.
+   */
+  public FrameQualityGate(int minContrast, int minSharpness) {
+    this.minContrast = minContrast;
+    this.minSharpness = minSharpness;
+    histogram = new int[256];
+    gradientHistogram = new int[256];
+  }
+
+  @Override
+  public boolean accept(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    if (width < 2 || height < 2) {
+      return true;
+    }
+    int xStep = Math.max(1, (width - 1) / GRID_SIZE);
+    int yStep = Math.max(1, (height - 1) / GRID_SIZE);
+
+    int[] localHistogram = histogram;
+    Arrays.fill(localHistogram, 0);
+    int[] gradients = gradientHistogram;
+    Arrays.fill(gradients, 0);
+    int samples = 0;
+    for (int y = 0; y + 1 < height; y += yStep) {
+      row = source.getRow(y, row);
+      nextRow = source.getRow(y + 1, nextRow);
+      byte[] localRow = row;
+      byte[] localNextRow = nextRow;
+      for (int x = 0; x + 1 < width; x += xStep) {
+        int pixel = localRow[x] & 0xFF;
+        int dx = Math.abs((localRow[x + 1] & 0xFF) - pixel);
+        int dy = Math.abs((localNextRow[x] & 0xFF) - pixel);
+        gradients[Math.max(dx, dy)]++;
+        localHistogram[pixel]++;
+        samples++;
+      }
+    }
+
+    int outliers = samples * OUTLIER_PERCENT / 100;
+    contrast = findLevel(localHistogram, samples - 1 - outliers) - findLevel(localHistogram, outliers);
+    sharpness = findLevel(gradients, samples - 1 - samples * EDGE_PERCENT / 100);
+    return contrast >= minContrast && sharpness >= minSharpness;
+  }
+
+  /**
+   * @return the luminance of the sample with the given rank, counting from the darkest
+   */
+  private static int findLevel(int[] histogram, int rank) {
+    int seen = 0;
+    for (int level = 0; level < histogram.length; level++) {
+      seen += histogram[level];
+      if (seen > rank) {
+        return level;
+      }
+    }
+    return histogram.length - 1;
+  }
+
+  /**
+   * @return contrast of the last frame checked, for tuning the threshold
+   */
+  public int getContrast() {
+    return contrast;
+  }
+
+  /**
+   * @return sharpness of the last frame checked, for tuning the threshold
+   */
+  public int getSharpness() {
+    return sharpness;
+  }
+
+}
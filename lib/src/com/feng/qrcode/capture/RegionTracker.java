@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+
+/**
+ * Remembers where in the framing rectangle the readers last saw candidate finder and alignment
+ * points, so that the following frames can be decoded in a padded crop around that spot, which
+ * is much quicker than decoding the whole rectangle. After a number of frames in a row decode
+ * nothing in the crop, the tracker lets go and the whole rectangle is decoded again.
+ *
+ * It sits between the readers and the viewfinder's {@link ResultPointCallback}, translating points
+ * found in a crop back to framing rectangle coordinates for both. Points found at a reduced
+ * resolution must be scaled up before they reach it. Each decode thread has its own.
+ */
+final class RegionTracker implements ResultPointCallback {
+
+  // The crop extends this fraction of the points' extent beyond them on each side...
+  private static final float PADDING_FRACTION = 0.5f;
+  // ...but at least this fraction of the framing rectangle, to cover the barcode around a single
+  // candidate point
+  private static final int MIN_PADDING_DIVISOR = 6;
+  // Crops bigger than this fraction of the framing rectangle's area aren't worth it
+  private static final float MAX_AREA_FRACTION = 0.7f;
+
+  private final ResultPointCallback delegate;
+  private final int missBudget;
+  private boolean hasRegion;
+  private int regionLeft;
+  private int regionTop;
+  private int regionRight;
+  private int regionBottom;
+  private int misses;
+  // Offset of the crop being decoded, and the extent of the points found in it
+  private int left;
+  private int top;
+  private int pointCount;
+  private float minX;
+  private float minY;
+  private float maxX;
+  private float maxY;
+
+  /**
+   * @param delegate Receives all points, in framing rectangle coordinates. May be null.
+   * @param missBudget Number of frames in a row which may fail to decode in a crop before the
+   *                   whole framing rectangle is decoded again.
+   */
+  RegionTracker(ResultPointCallback delegate, int missBudget) {
+    this.delegate = delegate;
+    this.missBudget = missBudget;
+  }
+
+  /**
+   * @param width Width of the framing rectangle.
+   * @param height Height of the framing rectangle.
+   * @return whether to decode only part of the framing rectangle next, as given by
+   *  {@link #getRegionLeft()} and the like, rather than all of it
+   */
+  boolean hasRegion(int width, int height) {
+    if (hasRegion && (regionRight > width || regionBottom > height)) {
+      hasRegion = false;
+    }
+    return hasRegion;
+  }
+
+  int getRegionLeft() {
+    return regionLeft;
+  }
+
+  int getRegionTop() {
+    return regionTop;
+  }
+
+  int getRegionWidth() {
+    return regionRight - regionLeft;
+  }
+
+  int getRegionHeight() {
+    return regionBottom - regionTop;
+  }
+
+  /**
+   * Called before decoding a frame, or a crop of it.
+   *
+   * @param left Left of the crop within the framing rectangle.
+   * @param top Top of the crop within the framing rectangle.
+   */
+  void beginFrame(int left, int top) {
+    this.left = left;
+    this.top = top;
+    pointCount = 0;
+  }
+
+  @Override
+  public void foundPossibleResultPoint(ResultPoint point) {
+    float x = point.getX() + left;
+    float y = point.getY() + top;
+    if (pointCount == 0) {
+      minX = maxX = x;
+      minY = maxY = y;
+    } else {
+      minX = Math.min(minX, x);
+      maxX = Math.max(maxX, x);
+      minY = Math.min(minY, y);
+      maxY = Math.max(maxY, y);
+    }
+    pointCount++;
+    if (delegate != null) {
+      delegate.foundPossibleResultPoint(left == 0 && top == 0 ? point : new ResultPoint(x, y));
+    }
+  }
+
+  /**
+   * Called after decoding a frame begun with {@link #beginFrame(int, int)}, to pick the region
+   * for the next one. A result's points are moved into framing rectangle coordinates.
+   *
+   * @param result The barcode found, or null.
+   * @param width Width of the framing rectangle.
+   * @param height Height of the framing rectangle.
+   */
+  void endFrame(Result result, int width, int height) {
+    if (result != null) {
+      translate(result);
+      // Scanning is over; the next scan may be aimed anywhere
+      hasRegion = false;
+      return;
+    }
+    if (hasRegion) {
+      if (++misses >= missBudget) {
+        // Give the whole framing rectangle a turn
+        hasRegion = false;
+      } else if (pointCount > 0) {
+        // Follow the points, but keep counting misses so that spurious ones can't hold us here
+        setRegion(width, height);
+      }
+    } else if (pointCount > 0) {
+      misses = 0;
+      setRegion(width, height);
+    }
+  }
+
+  private void setRegion(int width, int height) {
+    int paddingX = Math.max((int) ((maxX - minX) * PADDING_FRACTION), width / MIN_PADDING_DIVISOR);
+    int paddingY = Math.max((int) ((maxY - minY) * PADDING_FRACTION), height / MIN_PADDING_DIVISOR);
+    int newLeft = Math.max(0, (int) minX - paddingX);
+    int newTop = Math.max(0, (int) minY - paddingY);
+    int newRight = Math.min(width, (int) maxX + paddingX + 1);
+    int newBottom = Math.min(height, (int) maxY + paddingY + 1);
+    int area = (newRight - newLeft) * (newBottom - newTop);
+    if (area > MAX_AREA_FRACTION * width * height) {
+      hasRegion = false;
+      return;
+    }
+    regionLeft = newLeft;
+    regionTop = newTop;
+    regionRight = newRight;
+    regionBottom = newBottom;
+    hasRegion = true;
+  }
+
+  private void translate(Result result) {
+    ResultPoint[] points = result.getResultPoints();
+    if (points == null || (left == 0 && top == 0)) {
+      return;
+    }
+    for (int i = 0; i < points.length; i++) {
+      ResultPoint point = points[i];
+      if (point != null) {
+        points[i] = new ResultPoint(point.getX() + left, point.getY() + top);
+      }
+    }
+  }
+
+}
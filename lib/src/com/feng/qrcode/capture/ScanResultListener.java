@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.feng.qrcode.capture;
+
+import android.graphics.Bitmap;
+
+import com.google.zxing.Result;
+
+/**
+ * Receives every new barcode while {@link CaptureActivity} scans continuously. Called on the main
+ * thread.
+ *
+ * @see CaptureActivity#setScanResultListener(ScanResultListener)
+ */
+public interface ScanResultListener {
+
+  /**
+   * @param result The barcode found.
+   * @param barcode A greyscale thumbnail of the camera data which was decoded, or null.
+   */
+  void onScanResult(Result result, Bitmap barcode);
+
+}
@@ -28,13 +28,23 @@ import com.google.zxing.common.BitMatrix;
 public final class BinaryBitmap {
 
   private final Binarizer binarizer;
+  private final DecodeTracer tracer;
   private BitMatrix matrix;
 
   public BinaryBitmap(Binarizer binarizer) {
+    this(binarizer, null);
+  }
+
+  /**
+   * @param binarizer The binarizer to convert the luminance with.
+   * @param tracer Times the conversion to a matrix as {@link DecodeStage#BINARIZATION}, or null.
+   */
+  public BinaryBitmap(Binarizer binarizer, DecodeTracer tracer) {
     if (binarizer == null) {
       throw new IllegalArgumentException("Binarizer must be non-null.");
     }
     this.binarizer = binarizer;
+    this.tracer = tracer;
   }
 
   /**
@@ -82,7 +92,13 @@ public final class BinaryBitmap {
     //    1D Reader finds a barcode before the 2D Readers run.
     // 2. This work will only be done once even if the caller installs multiple 2D Readers.
     if (matrix == null) {
-      matrix = binarizer.getBlackMatrix();
+      if (tracer == null) {
+        matrix = binarizer.getBlackMatrix();
+      } else {
+        long start = System.nanoTime();
+        matrix = binarizer.getBlackMatrix();
+        tracer.record(null, DecodeStage.BINARIZATION, System.nanoTime() - start);
+      }
     }
     return matrix;
   }
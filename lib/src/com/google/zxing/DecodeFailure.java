@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * Why an attempt to decode an image failed, in increasing order of how far decoding got.
+ *
+ * @see DecodeOutcome
+ */
+public enum DecodeFailure {
+
+  /** No barcode was found, or one was partially detected but could not be confirmed. */
+  NOT_FOUND,
+
+  /** A barcode was found, but its error correction or checksum failed. */
+  CHECKSUM,
+
+  /** A barcode was found and error corrected, but its content broke the format's rules. */
+  FORMAT;
+
+  /**
+   * @param re exception thrown by a {@link Reader}
+   * @return the corresponding failure reason
+   */
+  public static DecodeFailure forException(ReaderException re) {
+    if (re instanceof ChecksumException) {
+      return CHECKSUM;
+    }
+    if (re instanceof FormatException) {
+      return FORMAT;
+    }
+    return NOT_FOUND;
+  }
+
+}
@@ -17,6 +17,7 @@
 package com.google.zxing;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Encapsulates a type of hint that a caller may pass to a barcode reader to help it
@@ -98,6 +99,29 @@ public enum DecodeHintType {
    */
   ALLOWED_EAN_EXTENSIONS(int[].class),
 
+  /**
+   * Run the readers for each enabled format concurrently on the given executor, instead of one
+   * after another. Only honored by {@link MultiFormatReader}. The result is the same as a
+   * sequential decode would give. The caller owns the executor and must shut it down.
+   * Maps to an {@link ExecutorService}.
+   */
+  READER_EXECUTOR(ExecutorService.class),
+
+  /**
+   * Keep track of which readers recently found barcodes and how long each takes to fail, and try
+   * them in the order which finds a barcode soonest on average. Only honored by
+   * {@link MultiFormatReader}, when not decoding in parallel. Doesn't matter what it maps to;
+   * use {@link Boolean#TRUE}.
+   */
+  ADAPTIVE_READER_ORDER(Void.class),
+
+  /**
+   * Time each stage of decoding, per reader, for monitoring. Honored by {@link MultiFormatReader},
+   * for every reader, and within the QR Code reader for each detection and decoding step.
+   * Maps to a {@link DecodeTracer}.
+   */
+  DECODE_TRACER(DecodeTracer.class),
+
   // End of enumeration values.
   ;
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * The outcome of a decode which does not throw on failure: either a {@link Result}, or the
+ * {@link DecodeFailure} explaining why there is none. Failed outcomes are shared constants, so
+ * the common case of a frame with no barcode in it allocates nothing.
+ *
+ * @see MultiFormatReader#tryDecodeWithState(BinaryBitmap)
+ */
+public final class DecodeOutcome {
+
+  private static final DecodeOutcome[] FAILURES;
+  static {
+    DecodeFailure[] reasons = DecodeFailure.values();
+    FAILURES = new DecodeOutcome[reasons.length];
+    for (DecodeFailure reason : reasons) {
+      FAILURES[reason.ordinal()] = new DecodeOutcome(null, reason);
+    }
+  }
+
+  private final Result result;
+  private final DecodeFailure failure;
+
+  private DecodeOutcome(Result result, DecodeFailure failure) {
+    this.result = result;
+    this.failure = failure;
+  }
+
+  public static DecodeOutcome success(Result result) {
+    if (result == null) {
+      throw new IllegalArgumentException("No result");
+    }
+    return new DecodeOutcome(result, null);
+  }
+
+  public static DecodeOutcome failure(DecodeFailure reason) {
+    return FAILURES[reason.ordinal()];
+  }
+
+  /**
+   * @return true if a barcode was decoded
+   */
+  public boolean isSuccess() {
+    return result != null;
+  }
+
+  /**
+   * @return the decoded barcode, or null if decoding failed
+   */
+  public Result getResult() {
+    return result;
+  }
+
+  /**
+   * @return why decoding failed, or null if it succeeded
+   */
+  public DecodeFailure getFailure() {
+    return failure;
+  }
+
+  @Override
+  public String toString() {
+    return result != null ? result.toString() : failure.toString();
+  }
+
+}
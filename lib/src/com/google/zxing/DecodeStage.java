@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * The stages of decoding one image which a {@link DecodeTracer} times. Stages up to
+ * {@link #BINARIZATION} happen once per image; the rest happen inside each reader that runs.
+ *
+ * @see DecodeHintType#DECODE_TRACER
+ */
+public enum DecodeStage {
+
+  /** Building the luminance source from the camera data, including any crop and rotation. */
+  LUMINANCE,
+
+  /** Converting the luminance to a black and white matrix, done once for all 2D readers. */
+  BINARIZATION,
+
+  /** One whole attempt of a reader, whether or not it found a barcode. */
+  READER,
+
+  /** Searching the matrix for finder patterns. */
+  FINDER_SEARCH,
+
+  /** Searching near the expected location for an alignment pattern. */
+  ALIGNMENT,
+
+  /** Sampling the module grid through the perspective transform. */
+  GRID_SAMPLING,
+
+  /** Reed-Solomon error correction of all the data blocks. */
+  ERROR_CORRECTION,
+
+  /** Parsing the corrected codewords into text. */
+  BITSTREAM_PARSING
+
+}
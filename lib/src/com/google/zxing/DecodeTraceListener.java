@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * Receives each duration a {@link DecodeTracer} records, to pass on to some other monitoring.
+ * Called on the decoding thread, in the middle of decoding, so it must be quick and must not
+ * block.
+ */
+public interface DecodeTraceListener {
+
+  /**
+   * @param reader simple class name of the reader, or null for a stage which runs once per image
+   * @param stage the stage timed
+   * @param nanos how long it took
+   */
+  void onStage(String reader, DecodeStage stage, long nanos);
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Times the {@link DecodeStage}s of every image decoded with it, per reader, into
+ * {@link LatencyHistogram}s, to show where decoding time goes. Pass it to the readers under
+ * {@link DecodeHintType#DECODE_TRACER}. Any number of decoding threads may share one tracer;
+ * recording takes no locks.
+ *
+ * Read the aggregate with {@link #snapshot()}, or set a {@link DecodeTraceListener} to see each
+ * duration as it is recorded.
+ */
+public final class DecodeTracer {
+
+  private static final DecodeStage[] STAGES = DecodeStage.values();
+
+  // Stages which run once per image, rather than inside a reader
+  private final AtomicReferenceArray<LatencyHistogram> imageStages;
+  private final ConcurrentMap<String,AtomicReferenceArray<LatencyHistogram>> readerStages;
+  private volatile DecodeTraceListener listener;
+
+  public DecodeTracer() {
+    imageStages = new AtomicReferenceArray<LatencyHistogram>(STAGES.length);
+    readerStages = new ConcurrentHashMap<String,AtomicReferenceArray<LatencyHistogram>>();
+  }
+
+  /**
+   * @param hints decoding hints, or null
+   * @return the tracer in the hints, or null if there is none
+   */
+  public static DecodeTracer get(Map<DecodeHintType,?> hints) {
+    return hints == null ? null : (DecodeTracer) hints.get(DecodeHintType.DECODE_TRACER);
+  }
+
+  /**
+   * @param listener receives every duration recorded from now on, or null for none
+   */
+  public void setListener(DecodeTraceListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * @param reader simple class name of the reader, or null for a stage which runs once per image
+   * @param stage the stage timed
+   * @param nanos how long it took
+   */
+  public void record(String reader, DecodeStage stage, long nanos) {
+    AtomicReferenceArray<LatencyHistogram> stages;
+    if (reader == null) {
+      stages = imageStages;
+    } else {
+      stages = readerStages.get(reader);
+      if (stages == null) {
+        AtomicReferenceArray<LatencyHistogram> newStages =
+            new AtomicReferenceArray<LatencyHistogram>(STAGES.length);
+        stages = readerStages.putIfAbsent(reader, newStages);
+        if (stages == null) {
+          stages = newStages;
+        }
+      }
+    }
+    int index = stage.ordinal();
+    LatencyHistogram histogram = stages.get(index);
+    if (histogram == null) {
+      stages.compareAndSet(index, null, new LatencyHistogram());
+      histogram = stages.get(index);
+    }
+    histogram.record(nanos);
+
+    DecodeTraceListener currentListener = listener;
+    if (currentListener != null) {
+      currentListener.onStage(reader, stage, nanos);
+    }
+  }
+
+  /**
+   * @return latency of every stage recorded so far: the once-per-image stages first, then each
+   *  reader's, by reader name
+   */
+  public List<StageLatency> snapshot() {
+    List<StageLatency> snapshot = new ArrayList<StageLatency>();
+    addStages(snapshot, null, imageStages);
+    SortedMap<String,AtomicReferenceArray<LatencyHistogram>> sorted =
+        new TreeMap<String,AtomicReferenceArray<LatencyHistogram>>(readerStages);
+    for (Map.Entry<String,AtomicReferenceArray<LatencyHistogram>> entry : sorted.entrySet()) {
+      addStages(snapshot, entry.getKey(), entry.getValue());
+    }
+    return snapshot;
+  }
+
+  /**
+   * Forgets everything recorded so far.
+   */
+  public void reset() {
+    resetStages(imageStages);
+    for (AtomicReferenceArray<LatencyHistogram> stages : readerStages.values()) {
+      resetStages(stages);
+    }
+  }
+
+  private static void addStages(List<StageLatency> snapshot,
+                                String reader,
+                                AtomicReferenceArray<LatencyHistogram> stages) {
+    for (DecodeStage stage : STAGES) {
+      LatencyHistogram histogram = stages.get(stage.ordinal());
+      if (histogram != null && histogram.getCount() > 0L) {
+        snapshot.add(new StageLatency(reader,
+                                      stage,
+                                      histogram.getCount(),
+                                      histogram.getMean(),
+                                      histogram.getPercentile(0.50),
+                                      histogram.getPercentile(0.95),
+                                      histogram.getPercentile(0.99),
+                                      histogram.getMax()));
+      }
+    }
+  }
+
+  private static void resetStages(AtomicReferenceArray<LatencyHistogram> stages) {
+    for (int i = 0; i < stages.length(); i++) {
+      LatencyHistogram histogram = stages.get(i);
+      if (histogram != null) {
+        histogram.reset();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    for (StageLatency latency : snapshot()) {
+      result.append(latency).append('\n');
+    }
+    return result.toString();
+  }
+
+}
@@ -90,4 +90,11 @@ public enum EncodeHintType {
    *   a positive number (1, 2, .. 32) specifies a normaol (non-compact) Aztec code
    */
    AZTEC_LAYERS,
+
+  /**
+   * Specifies an {@link java.util.concurrent.Executor Executor} on which the QR code encoder
+   * scores its eight mask patterns in parallel. Only worth it for large symbols; without it they
+   * are scored on the calling thread.
+   */
+  QR_MASK_EXECUTOR,
 }
@@ -25,12 +25,25 @@ import com.google.zxing.qrcode.QRCodeReader;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * MultiFormatReader is a convenience class and the main entry point into the library for most uses.
  * By default it attempts to decode all barcode formats that the library supports. Optionally, you
  * can provide a hints object to request different behavior, for example only decoding QR codes.
+ * With {@link DecodeHintType#READER_EXECUTOR} set, the readers run concurrently. With
+ * {@link DecodeHintType#ADAPTIVE_READER_ORDER} set, they are reordered as they learn which formats
+ * the caller is actually scanning. {@link #tryDecodeWithState(BinaryBitmap)} reports a frame
+ * without a barcode, and why it failed, without throwing.
  *
  * @author Sean Owen
  * @author dswitkin@google.com (Daniel Switkin)
@@ -39,6 +52,13 @@ public final class MultiFormatReader implements Reader {
 
   private Map<DecodeHintType,?> hints;
   private Reader[] readers;
+  // Parallel to readers, and reordered with them when the reader order is adaptive
+  private ReaderStatistics[] statistics;
+  private boolean adaptive;
+  private DecodeTracer tracer;
+  private ExecutorService executor;
+  // Readers still running from the last parallel decode, which must finish before they are reused
+  private CountDownLatch pendingDecodes;
 
   /**
    * This version of decode honors the intent of Reader.decode(BinaryBitmap) in that it
@@ -52,7 +72,7 @@ public final class MultiFormatReader implements Reader {
   @Override
   public Result decode(BinaryBitmap image) throws NotFoundException {
     setHints(null);
-    return decodeInternal(image);
+    return getResult(decodeInternal(image));
   }
 
   /**
@@ -66,7 +86,7 @@ public final class MultiFormatReader implements Reader {
   @Override
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
     setHints(hints);
-    return decodeInternal(image);
+    return getResult(decodeInternal(image));
   }
 
   /**
@@ -78,6 +98,22 @@ public final class MultiFormatReader implements Reader {
    * @throws NotFoundException Any errors which occurred
    */
   public Result decodeWithState(BinaryBitmap image) throws NotFoundException {
+    // Make sure to set up the default state so we don't crash
+    if (readers == null) {
+      setHints(null);
+    }
+    return getResult(decodeInternal(image));
+  }
+
+  /**
+   * Like {@link #decodeWithState(BinaryBitmap)}, but reports failure in the returned outcome
+   * instead of throwing. When readers fail for different reasons, the reason which got furthest
+   * is reported: a {@link DecodeFailure#CHECKSUM} failure means some reader did find a barcode.
+   *
+   * @param image The pixel data to decode
+   * @return The contents of the image, or why they could not be decoded
+   */
+  public DecodeOutcome tryDecodeWithState(BinaryBitmap image) {
     // Make sure to set up the default state so we don't crash
     if (readers == null) {
       setHints(null);
@@ -85,6 +121,13 @@ public final class MultiFormatReader implements Reader {
     return decodeInternal(image);
   }
 
+  private static Result getResult(DecodeOutcome outcome) throws NotFoundException {
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
+
   /**
    * This method adds state to the MultiFormatReader. By setting the hints once, subsequent calls
    * to decodeWithState(image) can reuse the same set of readers without reallocating memory. This
@@ -93,7 +136,9 @@ public final class MultiFormatReader implements Reader {
    * @param hints The set of hints to use for subsequent calls to decode(image)
    */
   public void setHints(Map<DecodeHintType,?> hints) {
+    awaitPendingDecodes();
     this.hints = hints;
+    executor = hints == null ? null : (ExecutorService) hints.get(DecodeHintType.READER_EXECUTOR);
 
     boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
     @SuppressWarnings("unchecked")
@@ -153,10 +198,47 @@ public final class MultiFormatReader implements Reader {
       }
     }
     this.readers = readers.toArray(new Reader[readers.size()]);
+
+    statistics = new ReaderStatistics[this.readers.length];
+    for (int i = 0; i < statistics.length; i++) {
+      statistics[i] = new ReaderStatistics(this.readers[i], i);
+    }
+    adaptive = hints != null && hints.containsKey(DecodeHintType.ADAPTIVE_READER_ORDER);
+    tracer = DecodeTracer.get(hints);
+  }
+
+  /**
+   * @return statistics for each reader, in the order they are currently tried, or {@code null}
+   *  before the first decode or call to {@link #setHints(Map)}. Readers run on the
+   *  {@link DecodeHintType#READER_EXECUTOR} only count their failures.
+   */
+  public ReaderStatistics[] getReaderStatistics() {
+    ReaderStatistics[] currentStatistics = statistics;
+    return currentStatistics == null ? null : currentStatistics.clone();
+  }
+
+  /**
+   * @return number of recent hits for each format, across all readers, or {@code null}
+   *  before the first decode or call to {@link #setHints(Map)}
+   */
+  public Map<BarcodeFormat,Integer> getFormatHits() {
+    ReaderStatistics[] currentStatistics = statistics;
+    if (currentStatistics == null) {
+      return null;
+    }
+    Map<BarcodeFormat,Integer> formatHits = new EnumMap<BarcodeFormat,Integer>(BarcodeFormat.class);
+    for (ReaderStatistics readerStatistics : currentStatistics) {
+      for (Map.Entry<BarcodeFormat,Integer> entry : readerStatistics.getFormatHits().entrySet()) {
+        Integer count = formatHits.get(entry.getKey());
+        formatHits.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+      }
+    }
+    return formatHits;
   }
 
   @Override
   public void reset() {
+    awaitPendingDecodes();
     if (readers != null) {
       for (Reader reader : readers) {
         reader.reset();
@@ -164,17 +246,205 @@ public final class MultiFormatReader implements Reader {
     }
   }
 
-  private Result decodeInternal(BinaryBitmap image) throws NotFoundException {
+  private DecodeOutcome decodeInternal(BinaryBitmap image) {
+    awaitPendingDecodes();
     if (readers != null) {
-      for (Reader reader : readers) {
+      if (executor != null && readers.length > 1 && isBinarized(image)) {
+        return decodeInParallel(image);
+      }
+      return decodeSequentially(image);
+    }
+    return DecodeOutcome.failure(DecodeFailure.NOT_FOUND);
+  }
+
+  /**
+   * Tries each reader in turn, timing it, then reorders the readers for the next image if the
+   * reader order is adaptive.
+   */
+  private DecodeOutcome decodeSequentially(BinaryBitmap image) {
+    Reader[] currentReaders = readers;
+    ReaderStatistics[] currentStatistics = statistics;
+    DecodeTracer currentTracer = tracer;
+    DecodeFailure failure = DecodeFailure.NOT_FOUND;
+    try {
+      for (int i = 0; i < currentReaders.length; i++) {
+        long start = System.nanoTime();
+        Result result = null;
+        ReaderException exception = null;
         try {
-          return reader.decode(image, hints);
+          result = currentReaders[i].decode(image, hints);
         } catch (ReaderException re) {
-          // continue
+          exception = re;
         }
+        long elapsed = System.nanoTime() - start;
+        if (currentTracer != null) {
+          currentTracer.record(currentStatistics[i].getReaderName(), DecodeStage.READER, elapsed);
+        }
+        if (result != null) {
+          currentStatistics[i].record(result.getBarcodeFormat(), elapsed);
+          return DecodeOutcome.success(result);
+        }
+        currentStatistics[i].record(null, elapsed);
+        failure = countFailure(currentStatistics[i], exception, failure);
+      }
+    } finally {
+      if (adaptive) {
+        sortReaders(currentReaders, currentStatistics);
+      }
+    }
+    return DecodeOutcome.failure(failure);
+  }
+
+  /**
+   * Counts a reader's failure, and returns whichever of it and the failure so far got further.
+   */
+  private static DecodeFailure countFailure(ReaderStatistics readerStatistics,
+                                            ReaderException re,
+                                            DecodeFailure failure) {
+    DecodeFailure reason = DecodeFailure.forException(re);
+    readerStatistics.countFailure(reason);
+    return reason.compareTo(failure) > 0 ? reason : failure;
+  }
+
+  /**
+   * Insertion sort, as there are only a handful of readers and they are usually almost in order.
+   * Readers which have never been tried go first, in their default order, so each gets measured;
+   * the rest go by decreasing hit rate per unit of cost.
+   */
+  private static void sortReaders(Reader[] readers, ReaderStatistics[] statistics) {
+    for (int i = 1; i < statistics.length; i++) {
+      Reader reader = readers[i];
+      ReaderStatistics readerStatistics = statistics[i];
+      int j = i - 1;
+      while (j >= 0 && goesBefore(readerStatistics, statistics[j])) {
+        readers[j + 1] = readers[j];
+        statistics[j + 1] = statistics[j];
+        j--;
+      }
+      readers[j + 1] = reader;
+      statistics[j + 1] = readerStatistics;
+    }
+  }
+
+  private static boolean goesBefore(ReaderStatistics a, ReaderStatistics b) {
+    boolean aTried = a.getAttempts() > 0;
+    boolean bTried = b.getAttempts() > 0;
+    if (aTried != bTried) {
+      return bTried;
+    }
+    if (aTried) {
+      double aScore = a.getScore();
+      double bScore = b.getScore();
+      if (aScore != bScore) {
+        return aScore > bScore;
+      }
+    }
+    return a.getPriority() < b.getPriority();
+  }
+
+  /**
+   * Binarizes the image up front, so that the 2D readers share the cached matrix instead of racing
+   * to build it. If that fails, the 2D readers cannot succeed, but the 1D readers still might from
+   * single rows, so the image is decoded sequentially instead.
+   */
+  private static boolean isBinarized(BinaryBitmap image) {
+    try {
+      image.getBlackMatrix();
+      return true;
+    } catch (NotFoundException nfe) {
+      return false;
+    }
+  }
+
+  /**
+   * Runs the first reader on the calling thread and the rest on the executor. Results are taken in
+   * reader order, so when several readers succeed the same one wins as in a sequential decode.
+   * Readers which have not started by the time a result is found are skipped; ones already running
+   * are left to finish, and waited for before the readers are next used.
+   */
+  private DecodeOutcome decodeInParallel(final BinaryBitmap image) {
+    final Map<DecodeHintType,?> currentHints = hints;
+    Reader[] currentReaders = readers;
+    ReaderStatistics[] currentStatistics = statistics;
+    DecodeFailure failure = DecodeFailure.NOT_FOUND;
+    int numTasks = currentReaders.length - 1;
+    final CountDownLatch finished = new CountDownLatch(numTasks);
+    final AtomicBoolean done = new AtomicBoolean();
+    List<Future<Result>> futures = new ArrayList<Future<Result>>(numTasks);
+    pendingDecodes = finished;
+    try {
+      for (int i = 1; i < currentReaders.length; i++) {
+        final Reader reader = currentReaders[i];
+        Callable<Result> task = new Callable<Result>() {
+          @Override
+          public Result call() throws ReaderException {
+            try {
+              if (done.get()) {
+                throw NotFoundException.getNotFoundInstance();
+              }
+              return reader.decode(image, currentHints);
+            } finally {
+              finished.countDown();
+            }
+          }
+        };
+        try {
+          futures.add(executor.submit(task));
+        } catch (RejectedExecutionException ree) {
+          // Run it here instead when its turn comes
+          finished.countDown();
+          futures.add(null);
+        }
+      }
+
+      try {
+        return DecodeOutcome.success(currentReaders[0].decode(image, currentHints));
+      } catch (ReaderException re) {
+        failure = countFailure(currentStatistics[0], re, failure);
+      }
+      for (int i = 0; i < numTasks; i++) {
+        Future<Result> future = futures.get(i);
+        try {
+          Result result = future == null ? currentReaders[i + 1].decode(image, currentHints) : future.get();
+          return DecodeOutcome.success(result);
+        } catch (ReaderException re) {
+          failure = countFailure(currentStatistics[i + 1], re, failure);
+        } catch (ExecutionException ee) {
+          Throwable cause = ee.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          failure = countFailure(currentStatistics[i + 1], (ReaderException) cause, failure);
+        }
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    } finally {
+      done.set(true);
+    }
+    return DecodeOutcome.failure(failure);
+  }
+
+  private void awaitPendingDecodes() {
+    CountDownLatch pending = pendingDecodes;
+    if (pending != null) {
+      pendingDecodes = null;
+      boolean interrupted = false;
+      while (true) {
+        try {
+          pending.await();
+          break;
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
       }
     }
-    throw NotFoundException.getNotFoundInstance();
   }
 
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outcome and cost of the most recent attempts of one {@link Reader} inside a
+ * {@link MultiFormatReader}, kept over a fixed-size sliding window. These drive the reader
+ * order when {@link DecodeHintType#ADAPTIVE_READER_ORDER} is set, and tell callers which
+ * formats actually show up. Failures are also counted by {@link DecodeFailure} reason, over all
+ * attempts rather than the window, to show why scans fail.
+ */
+public final class ReaderStatistics {
+
+  private static final int WINDOW_SIZE = 64;
+
+  private final String readerName;
+  private final int priority;
+  // Ring of the last attempts: the format decoded, or null for a miss, and the time taken
+  private final BarcodeFormat[] outcomes;
+  private final long[] nanos;
+  private int next;
+  private int attempts;
+  private int hits;
+  private long failureNanos;
+  private long successNanos;
+  private final long[] failureCounts;
+
+  ReaderStatistics(Reader reader, int priority) {
+    this.readerName = reader.getClass().getSimpleName();
+    this.priority = priority;
+    outcomes = new BarcodeFormat[WINDOW_SIZE];
+    nanos = new long[WINDOW_SIZE];
+    failureCounts = new long[DecodeFailure.values().length];
+  }
+
+  synchronized void record(BarcodeFormat format, long elapsedNanos) {
+    if (attempts == WINDOW_SIZE) {
+      // Forget the oldest attempt
+      if (outcomes[next] == null) {
+        failureNanos -= nanos[next];
+      } else {
+        successNanos -= nanos[next];
+        hits--;
+      }
+    } else {
+      attempts++;
+    }
+    outcomes[next] = format;
+    nanos[next] = elapsedNanos;
+    if (format == null) {
+      failureNanos += elapsedNanos;
+    } else {
+      successNanos += elapsedNanos;
+      hits++;
+    }
+    next = (next + 1) % WINDOW_SIZE;
+  }
+
+  synchronized void countFailure(DecodeFailure reason) {
+    failureCounts[reason.ordinal()]++;
+  }
+
+  /**
+   * @return position of the reader in the default order, used to break ties
+   */
+  int getPriority() {
+    return priority;
+  }
+
+  /**
+   * @return hit rate divided by expected cost; running readers in decreasing order of this value
+   *  minimizes the expected time to the first hit
+   */
+  synchronized double getScore() {
+    // Smoothed, so that a reader with a short unlucky run is not written off entirely
+    double hitRate = (hits + 1.0) / (attempts + 2.0);
+    long cost = attempts == hits ? successNanos / attempts : failureNanos / (attempts - hits);
+    return hitRate / Math.max(cost, 1L);
+  }
+
+  /**
+   * @return simple class name of the reader
+   */
+  public String getReaderName() {
+    return readerName;
+  }
+
+  /**
+   * @return number of attempts in the window
+   */
+  public synchronized int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * @return number of attempts in the window which found a barcode
+   */
+  public synchronized int getHits() {
+    return hits;
+  }
+
+  /**
+   * @return fraction of attempts in the window which found a barcode
+   */
+  public synchronized float getHitRate() {
+    return attempts == 0 ? 0.0f : (float) hits / attempts;
+  }
+
+  /**
+   * @return average time in nanoseconds of an attempt in the window which found nothing
+   */
+  public synchronized long getAverageFailureNanos() {
+    int failures = attempts - hits;
+    return failures == 0 ? 0L : failureNanos / failures;
+  }
+
+  /**
+   * @param reason a failure reason
+   * @return number of attempts which failed for that reason, since the reader was created
+   */
+  public synchronized long getFailureCount(DecodeFailure reason) {
+    return failureCounts[reason.ordinal()];
+  }
+
+  /**
+   * @return number of hits in the window for each format this reader decoded
+   */
+  public synchronized Map<BarcodeFormat,Integer> getFormatHits() {
+    Map<BarcodeFormat,Integer> formatHits = new EnumMap<BarcodeFormat,Integer>(BarcodeFormat.class);
+    for (int i = 0; i < attempts; i++) {
+      BarcodeFormat format = outcomes[i];
+      if (format != null) {
+        Integer count = formatHits.get(format);
+        formatHits.put(format, count == null ? 1 : count + 1);
+      }
+    }
+    return formatHits;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return readerName + ": " + hits + '/' + attempts + " hits, " + getAverageFailureNanos() + " ns/miss, " +
+        failureCounts[DecodeFailure.NOT_FOUND.ordinal()] + " not found, " +
+        failureCounts[DecodeFailure.CHECKSUM.ordinal()] + " checksum, " +
+        failureCounts[DecodeFailure.FORMAT.ordinal()] + " format";
+  }
+
+}
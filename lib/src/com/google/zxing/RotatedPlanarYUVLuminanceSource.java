@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * A variant of {@link PlanarYUVLuminanceSource} which presents the camera data rotated clockwise
+ * by 0, 90, 180 or 270 degrees, without ever rotating the underlying buffer. The crop rectangle
+ * is expressed in rotated coordinates, and only the pixels inside it are read, straight from the
+ * unrotated Y plane. This avoids allocating and transposing a full preview frame when the camera
+ * sensor orientation differs from the display orientation.
+ *
+ * It works for any pixel format where the Y channel is planar and appears first, including
+ * YCbCr_420_SP and YCbCr_422_SP.
+ */
+public final class RotatedPlanarYUVLuminanceSource extends LuminanceSource {
+
+  private static final int THUMBNAIL_SCALE_FACTOR = 2;
+
+  private final byte[] yuvData;
+  private final int dataWidth;
+  private final int dataHeight;
+  private final int rotation;
+  private final int left;
+  private final int top;
+  // Offset into yuvData of the rotated pixel (0,0) of this crop, and the distance in yuvData
+  // between horizontally and vertically adjacent rotated pixels.
+  private final int origin;
+  private final int xStep;
+  private final int yStep;
+
+  /**
+   * @param yuvData The camera preview frame, unrotated.
+   * @param dataWidth The width of the camera preview frame.
+   * @param dataHeight The height of the camera preview frame.
+   * @param rotation Clockwise rotation to apply to the frame: 0, 90, 180 or 270.
+   * @param left The left of the crop rectangle, in rotated coordinates.
+   * @param top The top of the crop rectangle, in rotated coordinates.
+   * @param width The width of the crop rectangle, in rotated coordinates.
+   * @param height The height of the crop rectangle, in rotated coordinates.
+   */
+  public RotatedPlanarYUVLuminanceSource(byte[] yuvData,
+                                         int dataWidth,
+                                         int dataHeight,
+                                         int rotation,
+                                         int left,
+                                         int top,
+                                         int width,
+                                         int height) {
+    super(width, height);
+
+    boolean transposed = rotation == 90 || rotation == 270;
+    if (!transposed && rotation != 0 && rotation != 180) {
+      throw new IllegalArgumentException("Unsupported rotation: " + rotation);
+    }
+    int rotatedWidth = transposed ? dataHeight : dataWidth;
+    int rotatedHeight = transposed ? dataWidth : dataHeight;
+    if (left < 0 || top < 0 || left + width > rotatedWidth || top + height > rotatedHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+
+    this.yuvData = yuvData;
+    this.dataWidth = dataWidth;
+    this.dataHeight = dataHeight;
+    this.rotation = rotation;
+    this.left = left;
+    this.top = top;
+
+    int base;
+    switch (rotation) {
+      case 90:
+        base = (dataHeight - 1) * dataWidth;
+        xStep = -dataWidth;
+        yStep = 1;
+        break;
+      case 180:
+        base = dataHeight * dataWidth - 1;
+        xStep = -1;
+        yStep = -dataWidth;
+        break;
+      case 270:
+        base = dataWidth - 1;
+        xStep = dataWidth;
+        yStep = -1;
+        break;
+      default:
+        base = 0;
+        xStep = 1;
+        yStep = dataWidth;
+        break;
+    }
+    origin = base + left * xStep + top * yStep;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    int offset = origin + y * yStep;
+    if (xStep == 1) {
+      System.arraycopy(yuvData, offset, row, 0, width);
+      return row;
+    }
+    byte[] yuv = yuvData;
+    int step = xStep;
+    for (int x = 0; x < width; x++, offset += step) {
+      row[x] = yuv[offset];
+    }
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+    byte[] yuv = yuvData;
+
+    if (xStep == 1) {
+      // Unrotated: if the caller asks for the entire underlying image, give them the original data.
+      if (width == dataWidth && height == dataHeight) {
+        return yuv;
+      }
+      byte[] matrix = new byte[width * height];
+      for (int y = 0, inputOffset = origin; y < height; y++, inputOffset += dataWidth) {
+        System.arraycopy(yuv, inputOffset, matrix, y * width, width);
+      }
+      return matrix;
+    }
+
+    byte[] matrix = new byte[width * height];
+    if (yStep == 1 || yStep == -1) {
+      // Rotated by 90 or 270: a rotated column is a contiguous run in the source, so walk the
+      // source sequentially and scatter into the output columns.
+      int step = yStep;
+      for (int x = 0, columnOffset = origin; x < width; x++, columnOffset += xStep) {
+        for (int y = 0, inputOffset = columnOffset, outputOffset = x;
+             y < height;
+             y++, inputOffset += step, outputOffset += width) {
+          matrix[outputOffset] = yuv[inputOffset];
+        }
+      }
+    } else {
+      // Rotated by 180: each row is a source row read backwards.
+      for (int y = 0, rowOffset = origin; y < height; y++, rowOffset += yStep) {
+        for (int x = 0, inputOffset = rowOffset, outputOffset = y * width;
+             x < width;
+             x++, inputOffset--, outputOffset++) {
+          matrix[outputOffset] = yuv[inputOffset];
+        }
+      }
+    }
+    return matrix;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new RotatedPlanarYUVLuminanceSource(yuvData,
+                                               dataWidth,
+                                               dataHeight,
+                                               rotation,
+                                               this.left + left,
+                                               this.top + top,
+                                               width,
+                                               height);
+  }
+
+  /**
+   * Samples every other pixel of the crop rectangle, upright, as one luminance byte per pixel,
+   * so that the thumbnail can be kept cheaply after the camera buffer is reused and only turned
+   * into an image if it is actually shown.
+   *
+   * @return greyscale thumbnail, row by row, of {@link #getThumbnailWidth()} by
+   *  {@link #getThumbnailHeight()} pixels
+   */
+  public byte[] getThumbnailMatrix() {
+    int width = getWidth() / THUMBNAIL_SCALE_FACTOR;
+    int height = getHeight() / THUMBNAIL_SCALE_FACTOR;
+    byte[] matrix = new byte[width * height];
+    byte[] yuv = yuvData;
+    int pixelStep = xStep * THUMBNAIL_SCALE_FACTOR;
+    int rowStep = yStep * THUMBNAIL_SCALE_FACTOR;
+
+    for (int y = 0, rowOffset = origin; y < height; y++, rowOffset += rowStep) {
+      int outputOffset = y * width;
+      for (int x = 0, inputOffset = rowOffset; x < width; x++, inputOffset += pixelStep) {
+        matrix[outputOffset + x] = yuv[inputOffset];
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * @return width of image from {@link #getThumbnailMatrix()}
+   */
+  public int getThumbnailWidth() {
+    return getWidth() / THUMBNAIL_SCALE_FACTOR;
+  }
+
+  /**
+   * @return height of image from {@link #getThumbnailMatrix()}
+   */
+  public int getThumbnailHeight() {
+    return getHeight() / THUMBNAIL_SCALE_FACTOR;
+  }
+
+}
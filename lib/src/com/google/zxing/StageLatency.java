@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * Latency of one {@link DecodeStage} of one reader, as captured by
+ * {@link DecodeTracer#snapshot()}. All durations are in nanoseconds.
+ */
+public final class StageLatency {
+
+  private final String reader;
+  private final DecodeStage stage;
+  private final long count;
+  private final long mean;
+  private final long p50;
+  private final long p95;
+  private final long p99;
+  private final long max;
+
+  StageLatency(String reader, DecodeStage stage, long count, long mean, long p50, long p95, long p99, long max) {
+    this.reader = reader;
+    this.stage = stage;
+    this.count = count;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p95 = p95;
+    this.p99 = p99;
+    this.max = max;
+  }
+
+  /**
+   * @return simple class name of the reader, or null for a stage which runs once per image
+   */
+  public String getReader() {
+    return reader;
+  }
+
+  public DecodeStage getStage() {
+    return stage;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getMean() {
+    return mean;
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public long getP95() {
+    return p95;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return (reader == null ? "" : reader + ' ') + stage + ": n=" + count + " p50=" + p50 / 1000 +
+        " p95=" + p95 / 1000 + " p99=" + p99 / 1000 + " max=" + max / 1000 + " us";
+  }
+
+}
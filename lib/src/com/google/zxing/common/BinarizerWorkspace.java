@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import java.util.Arrays;
+
+/**
+ * Scratch memory for {@link GlobalHistogramBinarizer} and {@link HybridBinarizer}, which can be
+ * carried from one frame to the next so that binarizing a stream of same-sized images allocates
+ * nothing. Buffers are sized on first use and only reallocated when the image size changes.
+ *
+ * A workspace holds no locks: give each decoding thread its own. Binarizing a new image reuses
+ * the {@link BitMatrix} returned for the previous one, so callers must be done with it first.
+ */
+public final class BinarizerWorkspace {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private byte[] luminances;
+  private int[] buckets;
+  private int[][] blackPoints;
+  private BitMatrix matrix;
+
+  public BinarizerWorkspace() {
+    luminances = EMPTY;
+  }
+
+  /**
+   * @return a row buffer of at least the given size
+   */
+  byte[] getLuminances(int size) {
+    if (luminances.length < size) {
+      luminances = new byte[size];
+    }
+    return luminances;
+  }
+
+  /**
+   * @return a zeroed histogram of exactly the given number of buckets
+   */
+  int[] getBuckets(int size) {
+    if (buckets == null || buckets.length != size) {
+      buckets = new int[size];
+    } else {
+      Arrays.fill(buckets, 0);
+    }
+    return buckets;
+  }
+
+  /**
+   * @return an array of block black points of exactly the given size, with undefined contents
+   */
+  int[][] getBlackPoints(int subWidth, int subHeight) {
+    if (blackPoints == null || blackPoints.length != subHeight || blackPoints[0].length != subWidth) {
+      blackPoints = new int[subHeight][subWidth];
+    }
+    return blackPoints;
+  }
+
+  /**
+   * @return an all-white matrix of exactly the given size
+   */
+  BitMatrix getMatrix(int width, int height) {
+    if (matrix == null || matrix.getWidth() != width || matrix.getHeight() != height) {
+      matrix = new BitMatrix(width, height);
+    } else {
+      matrix.clear();
+    }
+    return matrix;
+  }
+
+}
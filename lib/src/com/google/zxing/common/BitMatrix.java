@@ -145,6 +145,26 @@ public final class BitMatrix implements Cloneable {
     bits[offset] |= 1 << (x & 0x1f);
   }
 
+  /**
+   * <p>Sets the bits of a row which are set in the given value, leaving the others alone. Bit
+   * i of newBits corresponds to column x + i; it need not be aligned to a word.</p>
+   *
+   * @param x The column of the lowest bit of newBits
+   * @param y The row to modify
+   * @param newBits the bits to set. Bits which would fall past the end of the row must be 0.
+   */
+  public void orBulk(int x, int y, int newBits) {
+    int offset = y * rowSize + (x / 32);
+    int shift = x & 0x1f;
+    bits[offset] |= newBits << shift;
+    if (shift != 0) {
+      int carry = newBits >>> (32 - shift);
+      if (carry != 0) {
+        bits[offset + 1] |= carry;
+      }
+    }
+  }
+
   public void unset(int x, int y) {
     int offset = y * rowSize + (x / 32);
     bits[offset] &= ~(1 << (x & 0x1f));
@@ -28,6 +28,9 @@ import com.google.zxing.NotFoundException;
  *
  * Faster mobile devices and all desktop applications should probably use HybridBinarizer instead.
  *
+ * Pass the same {@link BinarizerWorkspace} for every frame of a stream to avoid allocating
+ * scratch memory and the output matrix each time.
+ *
  * @author dswitkin@google.com (Daniel Switkin)
  * @author Sean Owen
  */
@@ -36,15 +39,26 @@ public class GlobalHistogramBinarizer extends Binarizer {
   private static final int LUMINANCE_BITS = 5;
   private static final int LUMINANCE_SHIFT = 8 - LUMINANCE_BITS;
   private static final int LUMINANCE_BUCKETS = 1 << LUMINANCE_BITS;
-  private static final byte[] EMPTY = new byte[0];
 
+  private final BinarizerWorkspace workspace;
   private byte[] luminances;
-  private final int[] buckets;
+  private int[] buckets;
 
   public GlobalHistogramBinarizer(LuminanceSource source) {
+    this(source, new BinarizerWorkspace());
+  }
+
+  /**
+   * @param source image to binarize
+   * @param workspace scratch memory to reuse, which must not be shared with another thread
+   */
+  public GlobalHistogramBinarizer(LuminanceSource source, BinarizerWorkspace workspace) {
     super(source);
-    luminances = EMPTY;
-    buckets = new int[LUMINANCE_BUCKETS];
+    this.workspace = workspace;
+  }
+
+  BinarizerWorkspace getWorkspace() {
+    return workspace;
   }
 
   // Applies simple sharpening to the row data to improve performance of the 1D Readers.
@@ -88,7 +102,7 @@ public class GlobalHistogramBinarizer extends Binarizer {
     LuminanceSource source = getLuminanceSource();
     int width = source.getWidth();
     int height = source.getHeight();
-    BitMatrix matrix = new BitMatrix(width, height);
+    BitMatrix matrix = workspace.getMatrix(width, height);
 
     // Quickly calculates the histogram by sampling four rows from the image. This proved to be
     // more robust on the blackbox tests than sampling a diagonal as we used to do.
@@ -128,12 +142,8 @@ public class GlobalHistogramBinarizer extends Binarizer {
   }
 
   private void initArrays(int luminanceSize) {
-    if (luminances.length < luminanceSize) {
-      luminances = new byte[luminanceSize];
-    }
-    for (int x = 0; x < LUMINANCE_BUCKETS; x++) {
-      buckets[x] = 0;
-    }
+    luminances = workspace.getLuminances(luminanceSize);
+    buckets = workspace.getBuckets(LUMINANCE_BUCKETS);
   }
 
   private static int estimateBlackPoint(int[] buckets) throws NotFoundException {
@@ -20,6 +20,13 @@ import com.google.zxing.Binarizer;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.NotFoundException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * This class implements a local thresholding algorithm, which while slower than the
  * GlobalHistogramBinarizer, is fairly efficient for what it does. It is designed for
@@ -34,6 +41,10 @@ import com.google.zxing.NotFoundException;
  * but for now it was not a win to use local blocks for 1D.
  *
  * This Binarizer is the default for the unit tests and the recommended class for library users.
+ * Continuous scan clients should give each decoding thread a {@link BinarizerWorkspace} and pass
+ * it in for every frame, so that repeated frames of the same size binarize without allocating.
+ * Given an executor, large images such as photos are binarized in horizontal bands in parallel;
+ * the result is identical to binarizing them on one thread.
  *
  * @author dswitkin@google.com (Daniel Switkin)
  */
@@ -46,11 +57,34 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
   private static final int BLOCK_SIZE_MASK = BLOCK_SIZE - 1;   // ...0011...11
   private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
   private static final int MIN_DYNAMIC_RANGE = 24;
+  // Images smaller than about 1280x800 aren't worth splitting up
+  private static final int PARALLEL_MINIMUM_PIXELS = 1 << 20;
+  private static final int BAND_HEIGHT_IN_BLOCKS = 16;
 
+  private final ExecutorService executor;
   private BitMatrix matrix;
 
   public HybridBinarizer(LuminanceSource source) {
     super(source);
+    executor = null;
+  }
+
+  /**
+   * @param source image to binarize
+   * @param workspace scratch memory to reuse, which must not be shared with another thread
+   */
+  public HybridBinarizer(LuminanceSource source, BinarizerWorkspace workspace) {
+    this(source, workspace, null);
+  }
+
+  /**
+   * @param source image to binarize
+   * @param workspace scratch memory to reuse, which must not be shared with another thread
+   * @param executor runs the bands of large images in parallel; may be null
+   */
+  public HybridBinarizer(LuminanceSource source, BinarizerWorkspace workspace, ExecutorService executor) {
+    super(source, workspace);
+    this.executor = executor;
   }
 
   /**
@@ -76,10 +110,17 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
       if ((height & BLOCK_SIZE_MASK) != 0) {
         subHeight++;
       }
-      int[][] blackPoints = calculateBlackPoints(luminances, subWidth, subHeight, width, height);
-
-      BitMatrix newMatrix = new BitMatrix(width, height);
-      calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints, newMatrix);
+      BinarizerWorkspace workspace = getWorkspace();
+      int[][] blackPoints = workspace.getBlackPoints(subWidth, subHeight);
+      BitMatrix newMatrix = workspace.getMatrix(width, height);
+      if (executor != null && width * height >= PARALLEL_MINIMUM_PIXELS) {
+        binarizeInBands(luminances, subWidth, subHeight, width, height, blackPoints, newMatrix);
+      } else {
+        calculateBlockAverages(luminances, 0, subHeight, subWidth, width, height, blackPoints);
+        resolveLowContrastBlocks(subWidth, subHeight, blackPoints);
+        calculateThresholdForBlock(luminances, 0, subHeight, subWidth, subHeight, width, height, blackPoints,
+                                   newMatrix);
+      }
       matrix = newMatrix;
     } else {
       // If the image is too small, fall back to the global histogram approach.
@@ -88,24 +129,110 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
     return matrix;
   }
 
+  /**
+   * The new binarizer gets its own scratch memory, as the caller may still be using the matrix
+   * this one produced.
+   */
   @Override
   public Binarizer createBinarizer(LuminanceSource source) {
     return new HybridBinarizer(source);
   }
 
   /**
-   * For each block in the image, calculate the average black point using a 5x5 grid
+   * Splits the rows of blocks into bands. Block averages and thresholds are computed per band on
+   * the executor; only the cheap low-contrast correction, which depends on the previous row of
+   * blocks, runs in order on this thread.
+   */
+  private void binarizeInBands(final byte[] luminances,
+                               final int subWidth,
+                               final int subHeight,
+                               final int width,
+                               final int height,
+                               final int[][] blackPoints,
+                               final BitMatrix matrix) {
+    List<Runnable> averageTasks = new ArrayList<Runnable>();
+    List<Runnable> thresholdTasks = new ArrayList<Runnable>();
+    for (int start = 0; start < subHeight; ) {
+      int end = Math.min(start + BAND_HEIGHT_IN_BLOCKS, subHeight);
+      if (end == subHeight - 1) {
+        // The last row of blocks is pulled up to overlap the one before it, so both must be
+        // thresholded by the same task or they would race to set bits in the same words.
+        end = subHeight;
+      }
+      final int yStart = start;
+      final int yEnd = end;
+      averageTasks.add(new Runnable() {
+        @Override
+        public void run() {
+          calculateBlockAverages(luminances, yStart, yEnd, subWidth, width, height, blackPoints);
+        }
+      });
+      thresholdTasks.add(new Runnable() {
+        @Override
+        public void run() {
+          calculateThresholdForBlock(luminances, yStart, yEnd, subWidth, subHeight, width, height, blackPoints,
+                                     matrix);
+        }
+      });
+      start = end;
+    }
+    runAll(averageTasks);
+    resolveLowContrastBlocks(subWidth, subHeight, blackPoints);
+    runAll(thresholdTasks);
+  }
+
+  /**
+   * Runs the last task on this thread and the others on the executor, and waits for all of them.
+   */
+  private void runAll(List<Runnable> tasks) {
+    List<Future<?>> futures = new ArrayList<Future<?>>(tasks.size());
+    int last = tasks.size() - 1;
+    for (int i = 0; i < last; i++) {
+      try {
+        futures.add(executor.submit(tasks.get(i)));
+      } catch (RejectedExecutionException ree) {
+        tasks.get(i).run();
+      }
+    }
+    tasks.get(last).run();
+
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        } catch (ExecutionException ee) {
+          Throwable cause = ee.getCause();
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw (RuntimeException) cause;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * For each block in rows [yStart, yEnd), calculate the average black point using a 5x5 grid
    * of the blocks around it. Also handles the corner cases (fractional blocks are computed based
    * on the last pixels in the row/column which are also used in the previous block).
    */
   private static void calculateThresholdForBlock(byte[] luminances,
+                                                 int yStart,
+                                                 int yEnd,
                                                  int subWidth,
                                                  int subHeight,
                                                  int width,
                                                  int height,
                                                  int[][] blackPoints,
                                                  BitMatrix matrix) {
-    for (int y = 0; y < subHeight; y++) {
+    for (int y = yStart; y < yEnd; y++) {
       int yoffset = y << BLOCK_SIZE_POWER;
       int maxYOffset = height - BLOCK_SIZE;
       if (yoffset > maxYOffset) {
@@ -135,7 +262,8 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
   }
 
   /**
-   * Applies a single threshold to a block of pixels.
+   * Applies a single threshold to a block of pixels. Each row of the block is packed into one
+   * byte's worth of bits and written to the matrix in a single operation.
    */
   private static void thresholdBlock(byte[] luminances,
                                      int xoffset,
@@ -144,32 +272,40 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
                                      int stride,
                                      BitMatrix matrix) {
     for (int y = 0, offset = yoffset * stride + xoffset; y < BLOCK_SIZE; y++, offset += stride) {
+      int rowBits = 0;
       for (int x = 0; x < BLOCK_SIZE; x++) {
         // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0.
-        if ((luminances[offset + x] & 0xFF) <= threshold) {
-          matrix.set(xoffset + x, yoffset + y);
-        }
+        // The sign bit of (threshold - pixel) is 0 exactly when pixel <= threshold.
+        rowBits |= (((threshold - (luminances[offset + x] & 0xFF)) >>> 31) ^ 1) << x;
+      }
+      if (rowBits != 0) {
+        matrix.orBulk(xoffset, yoffset + y, rowBits);
       }
     }
   }
 
   /**
-   * Calculates a single black point for each block of pixels and saves it away.
+   * Calculates a single black point for each block of pixels in rows [yStart, yEnd) and saves it
+   * away in blackPoints. Blocks with too little contrast can't be judged on their own; for those
+   * the block's minimum is stored, encoded as -(min + 1), for
+   * {@link #resolveLowContrastBlocks(int, int, int[][])} to finish.
    * See the following thread for a discussion of this algorithm:
    *  http://groups.google.com/group/zxing/browse_thread/thread/d06efa2c35a7ddc0
    */
-  private static int[][] calculateBlackPoints(byte[] luminances,
-                                              int subWidth,
-                                              int subHeight,
-                                              int width,
-                                              int height) {
-    int[][] blackPoints = new int[subHeight][subWidth];
-    for (int y = 0; y < subHeight; y++) {
+  private static void calculateBlockAverages(byte[] luminances,
+                                             int yStart,
+                                             int yEnd,
+                                             int subWidth,
+                                             int width,
+                                             int height,
+                                             int[][] blackPoints) {
+    for (int y = yStart; y < yEnd; y++) {
       int yoffset = y << BLOCK_SIZE_POWER;
       int maxYOffset = height - BLOCK_SIZE;
       if (yoffset > maxYOffset) {
         yoffset = maxYOffset;
       }
+      int[] blackRow = blackPoints[y];
       for (int x = 0; x < subWidth; x++) {
         int xoffset = x << BLOCK_SIZE_POWER;
         int maxXOffset = width - BLOCK_SIZE;
@@ -202,36 +338,53 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
           }
         }
 
-        // The default estimate is the average of the values in the block.
-        int average = sum >> (BLOCK_SIZE_POWER * 2);
-        if (max - min <= MIN_DYNAMIC_RANGE) {
-          // If variation within the block is low, assume this is a block with only light or only
-          // dark pixels. In that case we do not want to use the average, as it would divide this
-          // low contrast area into black and white pixels, essentially creating data out of noise.
-          //
-          // The default assumption is that the block is light/background. Since no estimate for
-          // the level of dark pixels exists locally, use half the min for the block.
-          average = min / 2;
-
-          if (y > 0 && x > 0) {
-            // Correct the "white background" assumption for blocks that have neighbors by comparing
-            // the pixels in this block to the previously calculated black points. This is based on
-            // the fact that dark barcode symbology is always surrounded by some amount of light
-            // background for which reasonable black point estimates were made. The bp estimated at
-            // the boundaries is used for the interior.
-
-            // The (min < bp) is arbitrary but works better than other heuristics that were tried.
-            int averageNeighborBlackPoint =
-                (blackPoints[y - 1][x] + (2 * blackPoints[y][x - 1]) + blackPoints[y - 1][x - 1]) / 4;
-            if (min < averageNeighborBlackPoint) {
-              average = averageNeighborBlackPoint;
-            }
+        if (max - min > MIN_DYNAMIC_RANGE) {
+          // The default estimate is the average of the values in the block.
+          blackRow[x] = sum >> (BLOCK_SIZE_POWER * 2);
+        } else {
+          blackRow[x] = -(min + 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Replaces the placeholders left by calculateBlockAverages for low contrast blocks. This has to
+   * go in order, as each block looks at the finished black points above and to the left of it.
+   */
+  private static void resolveLowContrastBlocks(int subWidth, int subHeight, int[][] blackPoints) {
+    for (int y = 0; y < subHeight; y++) {
+      int[] blackRow = blackPoints[y];
+      for (int x = 0; x < subWidth; x++) {
+        if (blackRow[x] >= 0) {
+          continue;
+        }
+        int min = -blackRow[x] - 1;
+        // If variation within the block is low, assume this is a block with only light or only
+        // dark pixels. In that case we do not want to use the average, as it would divide this
+        // low contrast area into black and white pixels, essentially creating data out of noise.
+        //
+        // The default assumption is that the block is light/background. Since no estimate for
+        // the level of dark pixels exists locally, use half the min for the block.
+        int average = min / 2;
+
+        if (y > 0 && x > 0) {
+          // Correct the "white background" assumption for blocks that have neighbors by comparing
+          // the pixels in this block to the previously calculated black points. This is based on
+          // the fact that dark barcode symbology is always surrounded by some amount of light
+          // background for which reasonable black point estimates were made. The bp estimated at
+          // the boundaries is used for the interior.
+
+          // The (min < bp) is arbitrary but works better than other heuristics that were tried.
+          int averageNeighborBlackPoint =
+              (blackPoints[y - 1][x] + (2 * blackRow[x - 1]) + blackPoints[y - 1][x - 1]) / 4;
+          if (min < averageNeighborBlackPoint) {
+            average = averageNeighborBlackPoint;
           }
         }
-        blackPoints[y][x] = average;
+        blackRow[x] = average;
       }
     }
-    return blackPoints;
   }
 
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds which any number of threads can record into without
+ * locking. Buckets are log-linear: exact below 16 ns, then 16 buckets for each power of two, so
+ * a reported percentile is within about 6% of the true value. Durations above about 17 seconds
+ * are counted as 17 seconds.
+ *
+ * Percentiles are read from the buckets while other threads may still be recording, so they are
+ * approximate under concurrent use, which is fine for monitoring.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 34;
+  private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+  private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets;
+  private final AtomicLong count;
+  private final AtomicLong sum;
+  private final AtomicLong max;
+
+  public LatencyHistogram() {
+    buckets = new AtomicLongArray(BUCKET_COUNT);
+    count = new AtomicLong();
+    sum = new AtomicLong();
+    max = new AtomicLong();
+  }
+
+  /**
+   * @param nanos a duration; negative values count as 0
+   */
+  public void record(long nanos) {
+    long value = nanos < 0L ? 0L : Math.min(nanos, MAX_VALUE);
+    buckets.incrementAndGet(bucketFor(value));
+    count.incrementAndGet();
+    sum.addAndGet(value);
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * @return mean of the recorded durations, or 0 if there are none
+   */
+  public long getMean() {
+    long n = count.get();
+    return n == 0L ? 0L : sum.get() / n;
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * @param fraction in (0,1], such as 0.95 for the 95th percentile
+   * @return an upper bound on the duration below which that fraction of recordings fall, or 0 if
+   *  there are none
+   */
+  public long getPercentile(double fraction) {
+    long[] counts = new long[BUCKET_COUNT];
+    long total = 0L;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    if (total == 0L) {
+      return 0L;
+    }
+    long rank = Math.max(1L, (long) Math.ceil(fraction * total));
+    long seen = 0L;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Forgets everything recorded so far. Recordings made at the same time may be partly lost.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets.set(i, 0L);
+    }
+    count.set(0L);
+    sum.set(0L);
+    max.set(0L);
+  }
+
+  private static int bucketFor(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  private static long bucketUpperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return "n=" + getCount() + " p50=" + getPercentile(0.50) + " p95=" + getPercentile(0.95) +
+        " p99=" + getPercentile(0.99) + " max=" + getMax() + " ns";
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.PlanarYUVLuminanceSource;
+
+/**
+ * Views of a {@link LuminanceSource} at successively halved resolutions, each averaging 2x2
+ * pixels of the one before. A barcode which fills the image decodes just as well at half or a
+ * quarter of the resolution, at a fraction of the cost, so callers can try the coarse levels
+ * first and fall back to full resolution.
+ *
+ * Levels are only built when first asked for, and at most once per source. The buffers are kept
+ * from one source to the next, so that a stream of same-sized images allocates nothing once the
+ * levels have been built; as with {@link BinarizerWorkspace}, give each decoding thread its own
+ * pyramid, and be done with the levels of one source before setting the next.
+ */
+public final class LuminancePyramid {
+
+  private final int maxLevel;
+  private final int minDimension;
+  private final byte[][] levelData;
+  private final LuminanceSource[] levels;
+  private byte[] upperRow;
+  private byte[] lowerRow;
+  private int levelCount;
+
+  /**
+   * @param maxLevel how many times at most to halve the resolution
+   * @param minDimension smallest width or height worth decoding; coarser levels are not offered
+   */
+  public LuminancePyramid(int maxLevel, int minDimension) {
+    this.maxLevel = maxLevel;
+    this.minDimension = minDimension;
+    levelData = new byte[maxLevel + 1][];
+    levels = new LuminanceSource[maxLevel + 1];
+  }
+
+  /**
+   * Starts a pyramid over a new image, forgetting the levels built for the previous one.
+   */
+  public void setSource(LuminanceSource source) {
+    levels[0] = source;
+    for (int level = 1; level <= maxLevel; level++) {
+      levels[level] = null;
+    }
+    int width = source.getWidth();
+    int height = source.getHeight();
+    levelCount = 1;
+    while (levelCount <= maxLevel &&
+           Math.min(width >> levelCount, height >> levelCount) >= Math.max(minDimension, 1)) {
+      levelCount++;
+    }
+  }
+
+  /**
+   * @return number of levels available for the current source, including the source itself
+   */
+  public int getLevelCount() {
+    return levelCount;
+  }
+
+  /**
+   * @param level 0 for the source itself, 1 for half resolution, and so on
+   * @return the source at that level, each pixel covering {@code 1 << level} source pixels each way
+   */
+  public LuminanceSource getLevel(int level) {
+    if (level < 0 || level >= levelCount) {
+      throw new IllegalArgumentException("No level " + level);
+    }
+    if (levels[level] == null) {
+      levels[level] = downsample(getLevel(level - 1), level);
+    }
+    return levels[level];
+  }
+
+  private LuminanceSource downsample(LuminanceSource source, int level) {
+    int width = source.getWidth() >> 1;
+    int height = source.getHeight() >> 1;
+    int size = width * height;
+    byte[] data = levelData[level];
+    if (data == null || data.length != size) {
+      data = new byte[size];
+      levelData[level] = data;
+    }
+    for (int y = 0; y < height; y++) {
+      upperRow = source.getRow(2 * y, upperRow);
+      lowerRow = source.getRow(2 * y + 1, lowerRow);
+      byte[] upper = upperRow;
+      byte[] lower = lowerRow;
+      for (int x = 0, offset = y * width; x < width; x++, offset++) {
+        int sum = (upper[2 * x] & 0xff) + (upper[2 * x + 1] & 0xff) +
+            (lower[2 * x] & 0xff) + (lower[2 * x + 1] & 0xff);
+        data[offset] = (byte) ((sum + 2) >> 2);
+      }
+    }
+    // Plain greyscale is a Y plane without the chroma, so this needs no source type of its own
+    return new PlanarYUVLuminanceSource(data, width, height, 0, 0, width, height, false);
+  }
+
+}
@@ -16,6 +16,8 @@
 
 package com.google.zxing.common.reedsolomon;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * <p>This class contains utility methods for performing mathematical operations over
  * the Galois Fields. Operations use a given primitive polynomial in calculations.</p>
@@ -38,10 +40,15 @@ public final class GenericGF {
   public static final GenericGF AZTEC_DATA_8 = DATA_MATRIX_FIELD_256;
   public static final GenericGF MAXICODE_FIELD_64 = AZTEC_DATA_6;
 
+  // Fields this small get a full multiplication table; for 256 elements it takes 64KB
+  private static final int MAX_MULTIPLY_TABLE_SIZE = 256;
+
   private final int[] expTable;
   private final int[] logTable;
-  private final GenericGFPoly zero;
-  private final GenericGFPoly one;
+  // Product of a and b at a * size + b, or null for larger fields
+  private final byte[] multiplyTable;
+  // Generator polynomials by degree, built when first needed and shared by all encoders
+  private final AtomicReferenceArray<int[]> generators;
   private final int size;
   private final int primitive;
   private final int generatorBase;
@@ -62,7 +69,8 @@ public final class GenericGF {
     this.size = size;
     this.generatorBase = b;
 
-    expTable = new int[size];
+    // Twice as long as needed, so that a sum of two logs indexes it without a modulo
+    expTable = new int[2 * size];
     logTable = new int[size];
     int x = 1;
     for (int i = 0; i < size; i++) {
@@ -73,35 +81,49 @@ public final class GenericGF {
         x &= size-1;
       }
     }
+    for (int i = size; i < expTable.length; i++) {
+      expTable[i] = expTable[i - (size - 1)];
+    }
     for (int i = 0; i < size-1; i++) {
       logTable[expTable[i]] = i;
     }
     // logTable[0] == 0 but this should never be used
-    zero = new GenericGFPoly(this, new int[]{0});
-    one = new GenericGFPoly(this, new int[]{1});
-  }
-
-  GenericGFPoly getZero() {
-    return zero;
-  }
-
-  GenericGFPoly getOne() {
-    return one;
+    if (size <= MAX_MULTIPLY_TABLE_SIZE) {
+      multiplyTable = new byte[size * size];
+      for (int i = 1; i < size; i++) {
+        for (int j = 1; j < size; j++) {
+          multiplyTable[i * size + j] = (byte) expTable[logTable[i] + logTable[j]];
+        }
+      }
+    } else {
+      multiplyTable = null;
+    }
+    generators = new AtomicReferenceArray<int[]>(size);
   }
 
   /**
-   * @return the monomial representing coefficient * x^degree
+   * @param degree number of error correction codewords, from 1 to size - 1
+   * @return coefficients of (x + a^b)(x + a^(b+1))...(x + a^(b+degree-1)), highest degree first,
+   *  shared with other callers and so not to be modified
    */
-  GenericGFPoly buildMonomial(int degree, int coefficient) {
-    if (degree < 0) {
-      throw new IllegalArgumentException();
+  int[] getGenerator(int degree) {
+    if (degree <= 0 || degree >= size) {
+      throw new IllegalArgumentException("Bad generator degree " + degree);
     }
-    if (coefficient == 0) {
-      return zero;
+    int[] generator = generators.get(degree);
+    if (generator == null) {
+      generator = new int[degree + 1];
+      generator[0] = 1;
+      for (int d = 0; d < degree; d++) {
+        int root = exp(d + generatorBase);
+        for (int i = d + 1; i > 0; i--) {
+          generator[i] ^= multiply(generator[i - 1], root);
+        }
+      }
+      // Threads racing to build the same generator build equal ones, so either may win
+      generators.set(degree, generator);
     }
-    int[] coefficients = new int[degree + 1];
-    coefficients[0] = coefficient;
-    return new GenericGFPoly(this, coefficients);
+    return generator;
   }
 
   /**
@@ -144,10 +166,13 @@ public final class GenericGF {
    * @return product of a and b in GF(size)
    */
   int multiply(int a, int b) {
+    if (multiplyTable != null) {
+      return multiplyTable[a * size + b] & 0xFF;
+    }
     if (a == 0 || b == 0) {
       return 0;
     }
-    return expTable[(logTable[a] + logTable[b]) % (size - 1)];
+    return expTable[logTable[a] + logTable[b]];
   }
 
   public int getSize() {
@@ -16,6 +16,8 @@
 
 package com.google.zxing.common.reedsolomon;
 
+import java.util.Arrays;
+
 /**
  * <p>Implements Reed-Solomon decoding, as the name implies.</p>
  *
@@ -26,14 +28,18 @@ package com.google.zxing.common.reedsolomon;
  * <li>Bruce Maggs.
  * <a href="http://www.cs.cmu.edu/afs/cs.cmu.edu/project/pscico-guyb/realworld/www/rs_decode.ps">
  * "Decoding Reed-Solomon Codes"</a> (see discussion of Forney's Formula)</li>
- * <li>J.I. Hall. <a href="www.mth.msu.edu/~jhall/classes/codenotes/GRS.pdf">
- * "Chapter 5. Generalized Reed-Solomon Codes"</a>
- * (see discussion of Euclidean algorithm)</li>
+ * <li>J.L. Massey. "Shift-Register Synthesis and BCH Decoding", IEEE Transactions on
+ * Information Theory 15(1), 1969 (for the Berlekamp-Massey algorithm)</li>
  * </ul>
  *
  * <p>Much credit is due to William Rucklidge since portions of this code are an indirect
  * port of his C++ Reed-Solomon implementation.</p>
  *
+ * <p>Polynomials are worked on as plain coefficient arrays, lowest degree first, in scratch
+ * space kept from one call to the next, so that decoding a block allocates nothing once the
+ * scratch has grown to the largest block seen. An instance is therefore not thread-safe; the
+ * readers each hold their own.</p>
+ *
  * @author Sean Owen
  * @author William Rucklidge
  * @author sanfordsquires
@@ -41,9 +47,16 @@ package com.google.zxing.common.reedsolomon;
 public final class ReedSolomonDecoder {
 
   private final GenericGF field;
+  private int[] syndromes;
+  private int[] errorLocator;
+  private int[] lastLocator;
+  private int[] scratchLocator;
+  private int[] errorEvaluator;
+  private int[] errorPositions;
 
   public ReedSolomonDecoder(GenericGF field) {
     this.field = field;
+    ensureCapacity(0);
   }
 
   /**
@@ -51,140 +64,197 @@ public final class ReedSolomonDecoder {
    * codewords. Really, this means it uses Reed-Solomon to detect and correct errors, in-place,
    * in the input.</p>
    *
+   * <p>At most twoS / 2 errors, rounded down, are corrected. With an odd number of
+   * error-correction codewords one more is sometimes recoverable, but not reliably told apart
+   * from a different codeword, so such blocks are rejected.</p>
+   *
    * @param received data and error-correction codewords
    * @param twoS number of error-correction codewords available
-   * @throws ReedSolomonException if decoding fails for any reason
+   * @throws ReedSolomonException if decoding fails for any reason, including more than twoS / 2
+   *   errors
    */
   public void decode(int[] received, int twoS) throws ReedSolomonException {
-    GenericGFPoly poly = new GenericGFPoly(field, received);
-    int[] syndromeCoefficients = new int[twoS];
-    boolean noError = true;
-    for (int i = 0; i < twoS; i++) {
-      int eval = poly.evaluateAt(field.exp(i + field.getGeneratorBase()));
-      syndromeCoefficients[syndromeCoefficients.length - 1 - i] = eval;
-      if (eval != 0) {
-        noError = false;
-      }
-    }
-    if (noError) {
+    ensureCapacity(twoS);
+    if (!computeSyndromes(received, twoS)) {
+      // The common case: nothing to correct
       return;
     }
-    GenericGFPoly syndrome = new GenericGFPoly(field, syndromeCoefficients);
-    GenericGFPoly[] sigmaOmega =
-        runEuclideanAlgorithm(field.buildMonomial(twoS, 1), syndrome, twoS);
-    GenericGFPoly sigma = sigmaOmega[0];
-    GenericGFPoly omega = sigmaOmega[1];
-    int[] errorLocations = findErrorLocations(sigma);
-    int[] errorMagnitudes = findErrorMagnitudes(omega, errorLocations);
-    for (int i = 0; i < errorLocations.length; i++) {
-      int position = received.length - 1 - field.log(errorLocations[i]);
-      if (position < 0) {
-        throw new ReedSolomonException("Bad error location");
-      }
-      received[position] = GenericGF.addOrSubtract(received[position], errorMagnitudes[i]);
+    int numErrors = findErrorLocator(twoS);
+    if (2 * numErrors > twoS) {
+      throw new ReedSolomonException("Too many errors");
     }
+    findErrorPositions(received.length, numErrors);
+    findErrorEvaluator(numErrors);
+    correctErrors(received, numErrors);
   }
 
-  private GenericGFPoly[] runEuclideanAlgorithm(GenericGFPoly a, GenericGFPoly b, int R)
-      throws ReedSolomonException {
-    // Assume a's degree is >= b's
-    if (a.getDegree() < b.getDegree()) {
-      GenericGFPoly temp = a;
-      a = b;
-      b = temp;
+  private void ensureCapacity(int twoS) {
+    if (syndromes == null || syndromes.length < twoS) {
+      syndromes = new int[twoS];
+      errorLocator = new int[twoS + 1];
+      lastLocator = new int[twoS + 1];
+      scratchLocator = new int[twoS + 1];
+      errorEvaluator = new int[twoS];
+      errorPositions = new int[twoS];
     }
+  }
 
-    GenericGFPoly rLast = a;
-    GenericGFPoly r = b;
-    GenericGFPoly tLast = field.getZero();
-    GenericGFPoly t = field.getOne();
-
-    // Run Euclidean algorithm until r's degree is less than R/2
-    while (r.getDegree() >= R / 2) {
-      GenericGFPoly rLastLast = rLast;
-      GenericGFPoly tLastLast = tLast;
-      rLast = r;
-      tLast = t;
-
-      // Divide rLastLast by rLast, with quotient in q and remainder in r
-      if (rLast.isZero()) {
-        // Oops, Euclidean algorithm already terminated?
-        throw new ReedSolomonException("r_{i-1} was zero");
-      }
-      r = rLastLast;
-      GenericGFPoly q = field.getZero();
-      int denominatorLeadingTerm = rLast.getCoefficient(rLast.getDegree());
-      int dltInverse = field.inverse(denominatorLeadingTerm);
-      while (r.getDegree() >= rLast.getDegree() && !r.isZero()) {
-        int degreeDiff = r.getDegree() - rLast.getDegree();
-        int scale = field.multiply(r.getCoefficient(r.getDegree()), dltInverse);
-        q = q.addOrSubtract(field.buildMonomial(degreeDiff, scale));
-        r = r.addOrSubtract(rLast.multiplyByMonomial(degreeDiff, scale));
+  /**
+   * Evaluates the received polynomial at all the roots of the generator in one pass over the
+   * codewords. A codeword c multiplying x^p adds c * alpha^((i+b)p) to syndrome i; working in
+   * logs, the exponent for syndrome i + 1 is that for i plus p, so each term is one table lookup.
+   * Zero codewords add nothing and are skipped.
+   *
+   * @return true if any syndrome is not zero, that is, if there are errors
+   */
+  private boolean computeSyndromes(int[] received, int twoS) {
+    int[] syndromes = this.syndromes;
+    Arrays.fill(syndromes, 0, twoS, 0);
+    int order = field.getSize() - 1;
+    int generatorBase = field.getGeneratorBase();
+    int length = received.length;
+    for (int j = 0; j < length; j++) {
+      int coefficient = received[j];
+      if (coefficient == 0) {
+        continue;
       }
-
-      t = q.multiply(tLast).addOrSubtract(tLastLast);
-      
-      if (r.getDegree() >= rLast.getDegree()) {
-        throw new IllegalStateException("Division algorithm failed to reduce polynomial?");
+      int power = (length - 1 - j) % order;
+      int exponent = (field.log(coefficient) + generatorBase * power) % order;
+      for (int i = 0; i < twoS; i++) {
+        syndromes[i] ^= field.exp(exponent);
+        exponent += power;
+        if (exponent >= order) {
+          exponent -= order;
+        }
       }
     }
-
-    int sigmaTildeAtZero = t.getCoefficient(0);
-    if (sigmaTildeAtZero == 0) {
-      throw new ReedSolomonException("sigmaTilde(0) was zero");
+    int any = 0;
+    for (int i = 0; i < twoS; i++) {
+      any |= syndromes[i];
     }
-
-    int inverse = field.inverse(sigmaTildeAtZero);
-    GenericGFPoly sigma = t.multiply(inverse);
-    GenericGFPoly omega = r.multiply(inverse);
-    return new GenericGFPoly[]{sigma, omega};
+    return any != 0;
   }
 
-  private int[] findErrorLocations(GenericGFPoly errorLocator) throws ReedSolomonException {
-    // This is a direct application of Chien's search
-    int numErrors = errorLocator.getDegree();
-    if (numErrors == 1) { // shortcut
-      return new int[] { errorLocator.getCoefficient(1) };
+  /**
+   * Runs Berlekamp-Massey over the syndromes, leaving the error locator polynomial, whose roots
+   * are the inverses of the error locations, in {@code errorLocator}.
+   *
+   * @return degree of the error locator, the number of errors assumed
+   */
+  private int findErrorLocator(int twoS) {
+    int[] locator = errorLocator;
+    int[] last = lastLocator;
+    Arrays.fill(locator, 0, twoS + 1, 0);
+    Arrays.fill(last, 0, twoS + 1, 0);
+    locator[0] = 1;
+    last[0] = 1;
+    int degree = 0;
+    int shift = 1;
+    int lastDiscrepancyInverse = 1;
+    for (int n = 0; n < twoS; n++) {
+      int discrepancy = syndromes[n];
+      for (int i = 1; i <= degree; i++) {
+        discrepancy ^= field.multiply(locator[i], syndromes[n - i]);
+      }
+      if (discrepancy == 0) {
+        shift++;
+        continue;
+      }
+      int scale = field.multiply(discrepancy, lastDiscrepancyInverse);
+      if (2 * degree <= n) {
+        int[] previous = scratchLocator;
+        System.arraycopy(locator, 0, previous, 0, twoS + 1);
+        for (int i = 0; i + shift <= twoS; i++) {
+          locator[i + shift] ^= field.multiply(scale, last[i]);
+        }
+        degree = n + 1 - degree;
+        // The locator before this step becomes the one to correct with next time
+        scratchLocator = last;
+        last = previous;
+        lastDiscrepancyInverse = field.inverse(discrepancy);
+        shift = 1;
+      } else {
+        for (int i = 0; i + shift <= twoS; i++) {
+          locator[i + shift] ^= field.multiply(scale, last[i]);
+        }
+        shift++;
+      }
     }
-    int[] result = new int[numErrors];
-    int e = 0;
-    for (int i = 1; i < field.getSize() && e < numErrors; i++) {
-      if (errorLocator.evaluateAt(i) == 0) {
-        result[e] = field.inverse(i);
-        e++;
+    lastLocator = last;
+    return degree;
+  }
+
+  /**
+   * Chien's search, over the positions in the block only: a root pointing outside it means the
+   * block cannot be corrected anyway.
+   */
+  private void findErrorPositions(int length, int numErrors) throws ReedSolomonException {
+    int[] locator = errorLocator;
+    int order = field.getSize() - 1;
+    int found = 0;
+    for (int position = 0; position < length && found < numErrors; position++) {
+      // The coefficient at this position multiplies x^power; try x = alpha^-power
+      int power = length - 1 - position;
+      int x = field.exp((order - power % order) % order);
+      int eval = 0;
+      for (int i = numErrors; i >= 0; i--) {
+        eval = field.multiply(eval, x) ^ locator[i];
+      }
+      if (eval == 0) {
+        errorPositions[found++] = position;
       }
     }
-    if (e != numErrors) {
+    if (found != numErrors) {
       throw new ReedSolomonException("Error locator degree does not match number of roots");
     }
-    return result;
   }
 
-  private int[] findErrorMagnitudes(GenericGFPoly errorEvaluator, int[] errorLocations) {
-    // This is directly applying Forney's Formula
-    int s = errorLocations.length;
-    int[] result = new int[s];
-    for (int i = 0; i < s; i++) {
-      int xiInverse = field.inverse(errorLocations[i]);
-      int denominator = 1;
-      for (int j = 0; j < s; j++) {
-        if (i != j) {
-          //denominator = field.multiply(denominator,
-          //    GenericGF.addOrSubtract(1, field.multiply(errorLocations[j], xiInverse)));
-          // Above should work but fails on some Apple and Linux JDKs due to a Hotspot bug.
-          // Below is a funny-looking workaround from Steven Parkes
-          int term = field.multiply(errorLocations[j], xiInverse);
-          int termPlus1 = (term & 0x1) == 0 ? term | 1 : term & ~1;
-          denominator = field.multiply(denominator, termPlus1);
-        }
+  /**
+   * Leaves the syndrome polynomial times the error locator, modulo x^twoS, in
+   * {@code errorEvaluator}. Only its terms below the number of errors can be non-zero.
+   */
+  private void findErrorEvaluator(int numErrors) {
+    int[] locator = errorLocator;
+    for (int i = 0; i < numErrors; i++) {
+      int sum = 0;
+      for (int j = Math.max(0, i - numErrors); j <= i; j++) {
+        sum ^= field.multiply(syndromes[j], locator[i - j]);
+      }
+      errorEvaluator[i] = sum;
+    }
+  }
+
+  /**
+   * Forney's formula: the error at location X is X^(1-b) * omega(X^-1) / lambda'(X^-1), where b
+   * is the generator base.
+   */
+  private void correctErrors(int[] received, int numErrors) throws ReedSolomonException {
+    int[] locator = errorLocator;
+    int order = field.getSize() - 1;
+    int length = received.length;
+    for (int e = 0; e < numErrors; e++) {
+      int position = errorPositions[e];
+      int power = (length - 1 - position) % order;
+      int xInverse = field.exp((order - power) % order);
+      int numerator = 0;
+      for (int i = numErrors - 1; i >= 0; i--) {
+        numerator = field.multiply(numerator, xInverse) ^ errorEvaluator[i];
+      }
+      // In characteristic 2 the derivative keeps only the odd terms
+      int xInverseSquared = field.multiply(xInverse, xInverse);
+      int denominator = 0;
+      for (int i = numErrors - (numErrors % 2 == 0 ? 1 : 0); i >= 1; i -= 2) {
+        denominator = field.multiply(denominator, xInverseSquared) ^ locator[i];
+      }
+      if (denominator == 0) {
+        throw new ReedSolomonException("Error locator has a repeated root");
       }
-      result[i] = field.multiply(errorEvaluator.evaluateAt(xiInverse),
-          field.inverse(denominator));
-      if (field.getGeneratorBase() != 0) {
-        result[i] = field.multiply(result[i], xiInverse);
+      int magnitude = field.multiply(numerator, field.inverse(denominator));
+      if (field.getGeneratorBase() == 0) {
+        magnitude = field.multiply(magnitude, field.exp(power));
       }
+      received[position] ^= magnitude;
     }
-    return result;
   }
 
 }
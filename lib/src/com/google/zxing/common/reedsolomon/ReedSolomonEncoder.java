@@ -16,37 +16,24 @@
 
 package com.google.zxing.common.reedsolomon;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * <p>Implements Reed-Solomon enbcoding, as the name implies.</p>
  *
+ * <p>The error correction codewords are the remainder of the data, times x^ecBytes, divided by
+ * the generator polynomial. They are computed as a linear feedback shift register would, right
+ * in the space they end up in, so encoding allocates nothing. Generators come from a cache
+ * shared by every encoder over the same field, and an encoder holds no other state, so one
+ * instance can be shared between threads.</p>
+ *
  * @author Sean Owen
  * @author William Rucklidge
  */
 public final class ReedSolomonEncoder {
 
   private final GenericGF field;
-  private final List<GenericGFPoly> cachedGenerators;
 
   public ReedSolomonEncoder(GenericGF field) {
     this.field = field;
-    this.cachedGenerators = new ArrayList<GenericGFPoly>();
-    cachedGenerators.add(new GenericGFPoly(field, new int[]{1}));
-  }
-
-  private GenericGFPoly buildGenerator(int degree) {
-    if (degree >= cachedGenerators.size()) {
-      GenericGFPoly lastGenerator = cachedGenerators.get(cachedGenerators.size() - 1);
-      for (int d = cachedGenerators.size(); d <= degree; d++) {
-        GenericGFPoly nextGenerator = lastGenerator.multiply(
-            new GenericGFPoly(field, new int[] { 1, field.exp(d - 1 + field.getGeneratorBase()) }));
-        cachedGenerators.add(nextGenerator);
-        lastGenerator = nextGenerator;
-      }
-    }
-    return cachedGenerators.get(degree);
   }
 
   public void encode(int[] toEncode, int ecBytes) {
@@ -57,18 +44,24 @@ public final class ReedSolomonEncoder {
     if (dataBytes <= 0) {
       throw new IllegalArgumentException("No data bytes provided");
     }
-    GenericGFPoly generator = buildGenerator(ecBytes);
-    int[] infoCoefficients = new int[dataBytes];
-    System.arraycopy(toEncode, 0, infoCoefficients, 0, dataBytes);
-    GenericGFPoly info = new GenericGFPoly(field, infoCoefficients);
-    info = info.multiplyByMonomial(ecBytes, 1);
-    GenericGFPoly remainder = info.divide(generator)[1];
-    int[] coefficients = remainder.getCoefficients();
-    int numZeroCoefficients = ecBytes - coefficients.length;
-    for (int i = 0; i < numZeroCoefficients; i++) {
-      toEncode[dataBytes + i] = 0;
+    int[] generator = field.getGenerator(ecBytes);
+    // The register, highest degree first, is the error correction part of toEncode itself
+    int last = toEncode.length - 1;
+    for (int i = dataBytes; i <= last; i++) {
+      toEncode[i] = 0;
+    }
+    for (int i = 0; i < dataBytes; i++) {
+      int feedback = toEncode[i] ^ toEncode[dataBytes];
+      if (feedback == 0) {
+        System.arraycopy(toEncode, dataBytes + 1, toEncode, dataBytes, ecBytes - 1);
+        toEncode[last] = 0;
+      } else {
+        for (int j = 1; j < ecBytes; j++) {
+          toEncode[dataBytes + j - 1] = toEncode[dataBytes + j] ^ field.multiply(feedback, generator[j]);
+        }
+        toEncode[last] = field.multiply(feedback, generator[ecBytes]);
+      }
     }
-    System.arraycopy(coefficients, 0, toEncode, dataBytes + numZeroCoefficients, coefficients.length);
   }
 
 }
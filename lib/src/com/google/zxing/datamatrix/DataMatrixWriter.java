@@ -26,7 +26,7 @@ import com.google.zxing.datamatrix.encoder.ErrorCorrection;
 import com.google.zxing.datamatrix.encoder.HighLevelEncoder;
 import com.google.zxing.datamatrix.encoder.SymbolInfo;
 import com.google.zxing.datamatrix.encoder.SymbolShapeHint;
-import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.ModuleMatrix;
 
 import java.util.Map;
 
@@ -108,7 +108,7 @@ public final class DataMatrixWriter implements Writer {
     int symbolWidth = symbolInfo.getSymbolDataWidth();
     int symbolHeight = symbolInfo.getSymbolDataHeight();
 
-    ByteMatrix matrix = new ByteMatrix(symbolInfo.getSymbolWidth(), symbolInfo.getSymbolHeight());
+    ModuleMatrix matrix = new ModuleMatrix(symbolInfo.getSymbolWidth(), symbolInfo.getSymbolHeight());
 
     int matrixY = 0;
 
@@ -150,31 +150,7 @@ public final class DataMatrixWriter implements Writer {
       }
     }
 
-    return convertByteMatrixToBitMatrix(matrix);
-  }
-
-  /**
-   * Convert the ByteMatrix to BitMatrix.
-   *
-   * @param matrix The input matrix.
-   * @return The output matrix.
-   */
-  private static BitMatrix convertByteMatrixToBitMatrix(ByteMatrix matrix) {
-    int matrixWidgth = matrix.getWidth();
-    int matrixHeight = matrix.getHeight();
-
-    BitMatrix output = new BitMatrix(matrixWidgth, matrixHeight);
-    output.clear();
-    for (int i = 0; i < matrixWidgth; i++) {
-      for (int j = 0; j < matrixHeight; j++) {
-        // Zero is white in the bytematrix
-        if (matrix.get(i, j) == 1) {
-          output.set(i, j);
-        }
-      }
-    }
-
-    return output;
+    return matrix.toBitMatrix();
   }
 
 }
@@ -19,6 +19,7 @@ package com.google.zxing.multi.qrcode;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeTracer;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
@@ -58,10 +59,13 @@ public final class QRCodeMultiReader extends QRCodeReader implements MultipleBar
   @Override
   public Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
     List<Result> results = new ArrayList<Result>();
-    DetectorResult[] detectorResults = new MultiDetector(image.getBlackMatrix()).detectMulti(hints);
+    DecodeTracer tracer = DecodeTracer.get(hints);
+    String readerName = tracer == null ? null : getClass().getSimpleName();
+    DetectorResult[] detectorResults =
+        new MultiDetector(image.getBlackMatrix(), tracer, readerName).detectMulti(hints);
     for (DetectorResult detectorResult : detectorResults) {
       try {
-        DecoderResult decoderResult = getDecoder().decode(detectorResult.getBits(), hints);
+        DecoderResult decoderResult = getDecoder().decode(detectorResult.getBits(), hints, tracer, readerName);
         ResultPoint[] points = detectorResult.getPoints();
         // If the code was mirrored: swap the bottom-left and the top-right points.
         if (decoderResult.getOther() instanceof QRCodeDecoderMetaData) {
@@ -17,6 +17,8 @@
 package com.google.zxing.multi.qrcode.detector;
 
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeStage;
+import com.google.zxing.DecodeTracer;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ReaderException;
 import com.google.zxing.ResultPointCallback;
@@ -44,12 +46,27 @@ public final class MultiDetector extends Detector {
     super(image);
   }
 
+  /**
+   * @param image the binarized image to search
+   * @param tracer times the stages of detection, or null
+   * @param readerName simple class name of the reader the stages are recorded under
+   */
+  public MultiDetector(BitMatrix image, DecodeTracer tracer, String readerName) {
+    super(image, tracer, readerName);
+  }
+
   public DetectorResult[] detectMulti(Map<DecodeHintType,?> hints) throws NotFoundException {
     BitMatrix image = getImage();
     ResultPointCallback resultPointCallback =
         hints == null ? null : (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
     MultiFinderPatternFinder finder = new MultiFinderPatternFinder(image, resultPointCallback);
-    FinderPatternInfo[] infos = finder.findMulti(hints);
+    FinderPatternInfo[] infos;
+    long start = startTrace();
+    try {
+      infos = finder.findMulti(hints);
+    } finally {
+      trace(DecodeStage.FINDER_SEARCH, start);
+    }
 
     if (infos.length == 0) {
       throw NotFoundException.getNotFoundInstance();
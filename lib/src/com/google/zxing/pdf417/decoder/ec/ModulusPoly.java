@@ -18,7 +18,6 @@ package com.google.zxing.pdf417.decoder.ec;
 
 /**
  * @author Sean Owen
- * @see com.google.zxing.common.reedsolomon.GenericGFPoly
  */
 final class ModulusPoly {
 
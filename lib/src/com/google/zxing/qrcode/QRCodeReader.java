@@ -20,6 +20,7 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeTracer;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -69,13 +70,16 @@ public class QRCodeReader implements Reader {
       throws NotFoundException, ChecksumException, FormatException {
     DecoderResult decoderResult;
     ResultPoint[] points;
+    // Stages are recorded under the class actually decoding, which may be a subclass
+    DecodeTracer tracer = DecodeTracer.get(hints);
+    String readerName = tracer == null ? null : getClass().getSimpleName();
     if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
       BitMatrix bits = extractPureBits(image.getBlackMatrix());
-      decoderResult = decoder.decode(bits, hints);
+      decoderResult = decoder.decode(bits, hints, tracer, readerName);
       points = NO_POINTS;
     } else {
-      DetectorResult detectorResult = new Detector(image.getBlackMatrix()).detect(hints);
-      decoderResult = decoder.decode(detectorResult.getBits(), hints);
+      DetectorResult detectorResult = new Detector(image.getBlackMatrix(), tracer, readerName).detect(hints);
+      decoderResult = decoder.decode(detectorResult.getBits(), hints, tracer, readerName);
       points = detectorResult.getPoints();
     }
 
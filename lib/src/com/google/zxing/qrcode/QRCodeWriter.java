@@ -20,8 +20,9 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.Writer;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.ModuleMatrix;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import com.google.zxing.qrcode.encoder.Encoder;
 import com.google.zxing.qrcode.encoder.QRCode;
@@ -84,7 +85,7 @@ public final class QRCodeWriter implements Writer {
   // Note that the input matrix uses 0 == white, 1 == black, while the output matrix uses
   // 0 == black, 255 == white (i.e. an 8 bit greyscale bitmap).
   private static BitMatrix renderResult(QRCode code, int width, int height, int quietZone) {
-    ByteMatrix input = code.getMatrix();
+    ModuleMatrix input = code.getMatrix();
     if (input == null) {
       throw new IllegalStateException();
     }
@@ -103,14 +104,30 @@ public final class QRCodeWriter implements Writer {
     int leftPadding = (outputWidth - (inputWidth * multiple)) / 2;
     int topPadding = (outputHeight - (inputHeight * multiple)) / 2;
 
+    if (multiple == 1 && leftPadding == 0 && topPadding == 0 &&
+        inputWidth == outputWidth && inputHeight == outputHeight) {
+      return input.toBitMatrix();
+    }
     BitMatrix output = new BitMatrix(outputWidth, outputHeight);
 
+    BitArray row = new BitArray(outputWidth);
     for (int inputY = 0, outputY = topPadding; inputY < inputHeight; inputY++, outputY += multiple) {
-      // Write the contents of this row of the barcode
-      for (int inputX = 0, outputX = leftPadding; inputX < inputWidth; inputX++, outputX += multiple) {
-        if (input.get(inputX, inputY) == 1) {
-          output.setRegion(outputX, outputY, multiple, multiple);
+      // Scale this row of the barcode once, a run of dark modules at a time, then copy it down
+      row.clear();
+      int inputX = 0;
+      while (inputX < inputWidth) {
+        if (!input.get(inputX, inputY)) {
+          inputX++;
+          continue;
+        }
+        int runStart = inputX;
+        while (inputX < inputWidth && input.get(inputX, inputY)) {
+          inputX++;
         }
+        row.setRange(leftPadding + runStart * multiple, leftPadding + inputX * multiple);
+      }
+      for (int i = 0; i < multiple; i++) {
+        output.setRow(outputY + i, row);
       }
     }
 
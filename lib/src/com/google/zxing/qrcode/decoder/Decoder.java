@@ -18,6 +18,8 @@ package com.google.zxing.qrcode.decoder;
 
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeStage;
+import com.google.zxing.DecodeTracer;
 import com.google.zxing.FormatException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.DecoderResult;
@@ -84,13 +86,29 @@ public final class Decoder {
    */
   public DecoderResult decode(BitMatrix bits, Map<DecodeHintType,?> hints)
       throws FormatException, ChecksumException {
+    return decode(bits, hints, null, null);
+  }
+
+  /**
+   * <p>Like {@link #decode(BitMatrix, Map)}, timing error correction and bitstream parsing.</p>
+   *
+   * @param bits booleans representing white/black QR Code modules
+   * @param hints decoding hints that should be used to influence decoding
+   * @param tracer times the stages of decoding, or null
+   * @param readerName simple class name of the reader the stages are recorded under
+   * @return text and bytes encoded within the QR Code
+   * @throws FormatException if the QR Code cannot be decoded
+   * @throws ChecksumException if error correction fails
+   */
+  public DecoderResult decode(BitMatrix bits, Map<DecodeHintType,?> hints, DecodeTracer tracer, String readerName)
+      throws FormatException, ChecksumException {
 
     // Construct a parser and read version, error-correction level
     BitMatrixParser parser = new BitMatrixParser(bits);
     FormatException fe = null;
     ChecksumException ce = null;
     try {
-      return decode(parser, hints);
+      return decode(parser, hints, tracer, readerName);
     } catch (FormatException e) {
       fe = e;
     } catch (ChecksumException e) {
@@ -120,7 +138,7 @@ public final class Decoder {
       // Prepare for a mirrored reading.
       parser.mirror();
 
-      DecoderResult result = decode(parser, hints);
+      DecoderResult result = decode(parser, hints, tracer, readerName);
 
       // Success! Notify the caller that the code was mirrored.
       result.setOther(new QRCodeDecoderMetaData(true));
@@ -150,8 +168,10 @@ public final class Decoder {
       }
   }
 
-  private DecoderResult decode(BitMatrixParser parser, Map<DecodeHintType,?> hints)
-      throws FormatException, ChecksumException {
+  private DecoderResult decode(BitMatrixParser parser,
+                               Map<DecodeHintType,?> hints,
+                               DecodeTracer tracer,
+                               String readerName) throws FormatException, ChecksumException {
     Version version = parser.readVersion();
     ErrorCorrectionLevel ecLevel = parser.readFormatInformation().getErrorCorrectionLevel();
 
@@ -169,17 +189,33 @@ public final class Decoder {
     int resultOffset = 0;
 
     // Error-correct and copy data blocks together into a stream of bytes
-    for (DataBlock dataBlock : dataBlocks) {
-      byte[] codewordBytes = dataBlock.getCodewords();
-      int numDataCodewords = dataBlock.getNumDataCodewords();
-      correctErrors(codewordBytes, numDataCodewords);
-      for (int i = 0; i < numDataCodewords; i++) {
-        resultBytes[resultOffset++] = codewordBytes[i];
+    long start = tracer == null ? 0L : System.nanoTime();
+    try {
+      for (DataBlock dataBlock : dataBlocks) {
+        byte[] codewordBytes = dataBlock.getCodewords();
+        int numDataCodewords = dataBlock.getNumDataCodewords();
+        correctErrors(codewordBytes, numDataCodewords);
+        for (int i = 0; i < numDataCodewords; i++) {
+          resultBytes[resultOffset++] = codewordBytes[i];
+        }
       }
+    } finally {
+      trace(tracer, readerName, DecodeStage.ERROR_CORRECTION, start);
     }
 
     // Decode the contents of that stream of bytes
-    return DecodedBitStreamParser.decode(resultBytes, version, ecLevel, hints);
+    start = tracer == null ? 0L : System.nanoTime();
+    try {
+      return DecodedBitStreamParser.decode(resultBytes, version, ecLevel, hints);
+    } finally {
+      trace(tracer, readerName, DecodeStage.BITSTREAM_PARSING, start);
+    }
+  }
+
+  private static void trace(DecodeTracer tracer, String readerName, DecodeStage stage, long start) {
+    if (tracer != null) {
+      tracer.record(readerName, stage, System.nanoTime() - start);
+    }
   }
 
   /**
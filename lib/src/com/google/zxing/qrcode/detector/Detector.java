@@ -17,6 +17,8 @@
 package com.google.zxing.qrcode.detector;
 
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeStage;
+import com.google.zxing.DecodeTracer;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
@@ -39,10 +41,23 @@ import java.util.Map;
 public class Detector {
 
   private final BitMatrix image;
+  private final DecodeTracer tracer;
+  private final String readerName;
   private ResultPointCallback resultPointCallback;
 
   public Detector(BitMatrix image) {
+    this(image, null, null);
+  }
+
+  /**
+   * @param image the binarized image to search
+   * @param tracer times the stages of detection, or null
+   * @param readerName simple class name of the reader the stages are recorded under
+   */
+  public Detector(BitMatrix image, DecodeTracer tracer, String readerName) {
     this.image = image;
+    this.tracer = tracer;
+    this.readerName = readerName;
   }
 
   protected final BitMatrix getImage() {
@@ -78,7 +93,13 @@ public class Detector {
         (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
 
     FinderPatternFinder finder = new FinderPatternFinder(image, resultPointCallback);
-    FinderPatternInfo info = finder.find(hints);
+    FinderPatternInfo info;
+    long start = startTrace();
+    try {
+      info = finder.find(hints);
+    } finally {
+      trace(DecodeStage.FINDER_SEARCH, start);
+    }
 
     return processFinderPatternInfo(info);
   }
@@ -113,6 +134,7 @@ public class Detector {
       int estAlignmentY = (int) (topLeft.getY() + correctionToTopLeft * (bottomRightY - topLeft.getY()));
 
       // Kind of arbitrary -- expand search radius before giving up
+      long start = startTrace();
       for (int i = 4; i <= 16; i <<= 1) {
         try {
           alignmentPattern = findAlignmentInRegion(moduleSize,
@@ -124,13 +146,19 @@ public class Detector {
           // try next round
         }
       }
+      trace(DecodeStage.ALIGNMENT, start);
       // If we didn't find alignment pattern... well try anyway without it
     }
 
-    PerspectiveTransform transform =
-        createTransform(topLeft, topRight, bottomLeft, alignmentPattern, dimension);
-
-    BitMatrix bits = sampleGrid(image, transform, dimension);
+    long start = startTrace();
+    BitMatrix bits;
+    try {
+      PerspectiveTransform transform =
+          createTransform(topLeft, topRight, bottomLeft, alignmentPattern, dimension);
+      bits = sampleGrid(image, transform, dimension);
+    } finally {
+      trace(DecodeStage.GRID_SAMPLING, start);
+    }
 
     ResultPoint[] points;
     if (alignmentPattern == null) {
@@ -141,6 +169,20 @@ public class Detector {
     return new DetectorResult(bits, points);
   }
 
+  /**
+   * @return the time a stage starts, to pass to {@link #trace(DecodeStage, long)}; the clock is only
+   *  read if there is a tracer
+   */
+  protected final long startTrace() {
+    return tracer == null ? 0L : System.nanoTime();
+  }
+
+  protected final void trace(DecodeStage stage, long start) {
+    if (tracer != null) {
+      tracer.record(readerName, stage, System.nanoTime() - start);
+    }
+  }
+
   private static PerspectiveTransform createTransform(ResultPoint topLeft,
                                                       ResultPoint topRight,
                                                       ResultPoint bottomLeft,
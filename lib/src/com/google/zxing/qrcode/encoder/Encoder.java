@@ -30,6 +30,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * @author satorux@google.com (Satoru Takabayashi) - creator
@@ -49,16 +50,10 @@ public final class Encoder {
 
   static final String DEFAULT_BYTE_MODE_ENCODING = "ISO-8859-1";
 
-  private Encoder() {
-  }
+  // Holds no state of its own, so every block of every symbol can share it
+  private static final ReedSolomonEncoder EC_ENCODER = new ReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256);
 
-  // The mask penalty calculation is complicated.  See Table 21 of JISX0510:2004 (p.45) for details.
-  // Basically it applies four rules and summate all penalties.
-  private static int calculateMaskPenalty(ByteMatrix matrix) {
-    return MaskUtil.applyMaskPenaltyRule1(matrix)
-        + MaskUtil.applyMaskPenaltyRule2(matrix)
-        + MaskUtil.applyMaskPenaltyRule3(matrix)
-        + MaskUtil.applyMaskPenaltyRule4(matrix);
+  private Encoder() {
   }
 
   /**
@@ -150,8 +145,9 @@ public final class Encoder {
 
     //  Choose the mask pattern and set to "qrCode".
     int dimension = version.getDimensionForVersion();
-    ByteMatrix matrix = new ByteMatrix(dimension, dimension);
-    int maskPattern = chooseMaskPattern(finalBits, ecLevel, version, matrix);
+    ModuleMatrix matrix = new ModuleMatrix(dimension, dimension);
+    Executor maskExecutor = hints == null ? null : (Executor) hints.get(EncodeHintType.QR_MASK_EXECUTOR);
+    int maskPattern = new MaskSelector(finalBits, ecLevel, version).chooseMaskPattern(maskExecutor);
     qrCode.setMaskPattern(maskPattern);
 
     // Build the matrix and set it to "qrCode".
@@ -226,25 +222,6 @@ public final class Encoder {
     return true;
   }
 
-  private static int chooseMaskPattern(BitArray bits,
-                                       ErrorCorrectionLevel ecLevel,
-                                       Version version,
-                                       ByteMatrix matrix) throws WriterException {
-
-    int minPenalty = Integer.MAX_VALUE;  // Lower penalty is better.
-    int bestMaskPattern = -1;
-    // We try all mask patterns to choose the best one.
-    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
-      MatrixUtil.buildMatrix(bits, ecLevel, version, maskPattern, matrix);
-      int penalty = calculateMaskPenalty(matrix);
-      if (penalty < minPenalty) {
-        minPenalty = penalty;
-        bestMaskPattern = maskPattern;
-      }
-    }
-    return bestMaskPattern;
-  }
-
   private static Version chooseVersion(int numInputBits, ErrorCorrectionLevel ecLevel) throws WriterException {
     // In the following comments, we use numbers of Version 7-H.
     for (int versionNum = 1; versionNum <= 40; versionNum++) {
@@ -429,7 +406,7 @@ public final class Encoder {
     for (int i = 0; i < numDataBytes; i++) {
       toEncode[i] = dataBytes[i] & 0xFF;
     }
-    new ReedSolomonEncoder(GenericGF.QR_CODE_FIELD_256).encode(toEncode, numEcBytesInBlock);
+    EC_ENCODER.encode(toEncode, numEcBytesInBlock);
 
     byte[] ecBytes = new byte[numEcBytesInBlock];
     for (int i = 0; i < numEcBytesInBlock; i++) {
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.zxing.qrcode.encoder;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.decoder.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Chooses the mask pattern with the lowest penalty without building the symbol once per pattern.
+ * The symbol is laid out once, unmasked, and packed into bits by row and by column; each pattern
+ * then only XORs its mask into the data cells, fills in its own type information, and scores the
+ * result with the bit-parallel rules of {@link MaskUtil}.
+ */
+final class MaskSelector {
+
+  // Every mask pattern repeats after this many rows and columns
+  private static final int MASK_PERIOD = 12;
+
+  private final int dimension;
+  private final int words;
+  // The unmasked symbol, with its type information cells light
+  private final long[][] rows;
+  private final long[][] columns;
+  // Which cells hold data, and so are masked
+  private final long[][] dataRows;
+  private final long[][] dataColumns;
+  // Each mask pattern's dark cells over one period
+  private final long[][][] maskRows;
+  private final long[][][] maskColumns;
+  // Where each type information bit goes, and which are dark for each mask pattern
+  private final int[] typeInfoX;
+  private final int[] typeInfoY;
+  private final boolean[][] typeInfoDark;
+
+  MaskSelector(BitArray dataBits, ErrorCorrectionLevel ecLevel, Version version) throws WriterException {
+    dimension = version.getDimensionForVersion();
+    words = (dimension + 63) >> 6;
+    ModuleMatrix matrix = new ModuleMatrix(dimension, dimension);
+    MatrixUtil.clearMatrix(matrix);
+    MatrixUtil.embedBasicPatterns(version, matrix);
+    MatrixUtil.maybeEmbedVersionInfo(version, matrix);
+    long[][] functionRows = new long[dimension][words];
+    for (int y = 0; y < dimension; y++) {
+      matrix.getFunctionRow(y, functionRows[y]);
+    }
+
+    // The type information cells are the function cells that embedding it adds
+    MatrixUtil.embedTypeInfo(ecLevel, 0, matrix);
+    long[][] typeInfoRows = new long[dimension][words];
+    long[] row = new long[words];
+    int typeInfoCells = 0;
+    for (int y = 0; y < dimension; y++) {
+      matrix.getFunctionRow(y, row);
+      for (int w = 0; w < words; w++) {
+        typeInfoRows[y][w] = row[w] & ~functionRows[y][w];
+        typeInfoCells += Long.bitCount(typeInfoRows[y][w]);
+        functionRows[y][w] = row[w];
+      }
+    }
+    typeInfoX = new int[typeInfoCells];
+    typeInfoY = new int[typeInfoCells];
+    for (int y = 0, i = 0; y < dimension; y++) {
+      for (int w = 0; w < words; w++) {
+        for (long bits = typeInfoRows[y][w]; bits != 0L; bits &= bits - 1) {
+          typeInfoX[i] = (w << 6) + Long.numberOfTrailingZeros(bits);
+          typeInfoY[i] = y;
+          i++;
+        }
+      }
+    }
+    typeInfoDark = new boolean[QRCode.NUM_MASK_PATTERNS][typeInfoCells];
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      MatrixUtil.embedTypeInfo(ecLevel, maskPattern, matrix);
+      for (int i = 0; i < typeInfoCells; i++) {
+        typeInfoDark[maskPattern][i] = matrix.get(typeInfoX[i], typeInfoY[i]);
+      }
+    }
+    MatrixUtil.embedDataBits(dataBits, -1, matrix);
+
+    // Type information is left light here; each mask pattern fills in its own
+    rows = new long[dimension][words];
+    dataRows = new long[dimension][words];
+    for (int y = 0; y < dimension; y++) {
+      matrix.getRow(y, rows[y]);
+      for (int w = 0; w < words; w++) {
+        rows[y][w] &= ~typeInfoRows[y][w];
+        dataRows[y][w] = ~functionRows[y][w] & validBits(w);
+      }
+    }
+    columns = transpose(rows);
+    dataColumns = transpose(dataRows);
+
+    maskRows = new long[QRCode.NUM_MASK_PATTERNS][MASK_PERIOD][words];
+    maskColumns = new long[QRCode.NUM_MASK_PATTERNS][MASK_PERIOD][words];
+    for (int maskPattern = 0; maskPattern < QRCode.NUM_MASK_PATTERNS; maskPattern++) {
+      for (int i = 0; i < MASK_PERIOD; i++) {
+        for (int j = 0; j < dimension; j++) {
+          if (MaskUtil.getDataMaskBit(maskPattern, j, i)) {
+            maskRows[maskPattern][i][j >> 6] |= 1L << j;
+          }
+          if (MaskUtil.getDataMaskBit(maskPattern, i, j)) {
+            maskColumns[maskPattern][i][j >> 6] |= 1L << j;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @param executor if not null, scores the patterns on it in parallel; otherwise they are scored
+   *  on the calling thread
+   * @return the mask pattern with the lowest penalty, the lowest numbered one if several tie
+   */
+  int chooseMaskPattern(Executor executor) throws WriterException {
+    int[] penalties = new int[QRCode.NUM_MASK_PATTERNS];
+    if (executor == null) {
+      long[][] maskedRows = new long[dimension][words];
+      long[][] maskedColumns = new long[dimension][words];
+      for (int maskPattern = 0; maskPattern < penalties.length; maskPattern++) {
+        penalties[maskPattern] = calculateMaskPenalty(maskPattern, maskedRows, maskedColumns);
+      }
+    } else {
+      List<FutureTask<Integer>> tasks = new ArrayList<FutureTask<Integer>>(penalties.length);
+      for (int maskPattern = 0; maskPattern < penalties.length; maskPattern++) {
+        final int pattern = maskPattern;
+        FutureTask<Integer> task = new FutureTask<Integer>(new Callable<Integer>() {
+          @Override
+          public Integer call() {
+            return calculateMaskPenalty(pattern, new long[dimension][words], new long[dimension][words]);
+          }
+        });
+        tasks.add(task);
+        executor.execute(task);
+      }
+      try {
+        for (int maskPattern = 0; maskPattern < penalties.length; maskPattern++) {
+          penalties[maskPattern] = tasks.get(maskPattern).get();
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new WriterException(ie);
+      } catch (ExecutionException ee) {
+        throw new WriterException(ee.getCause());
+      }
+    }
+
+    int minPenalty = Integer.MAX_VALUE;  // Lower penalty is better.
+    int bestMaskPattern = -1;
+    for (int maskPattern = 0; maskPattern < penalties.length; maskPattern++) {
+      if (penalties[maskPattern] < minPenalty) {
+        minPenalty = penalties[maskPattern];
+        bestMaskPattern = maskPattern;
+      }
+    }
+    return bestMaskPattern;
+  }
+
+  /**
+   * Lays the symbol out with a mask pattern into the given arrays, and scores it with the rules
+   * of {@link MaskUtil}.
+   */
+  int calculateMaskPenalty(int maskPattern, long[][] maskedRows, long[][] maskedColumns) {
+    long[][] mask = maskRows[maskPattern];
+    for (int y = 0; y < dimension; y++) {
+      long[] maskRow = mask[y % MASK_PERIOD];
+      for (int w = 0; w < words; w++) {
+        maskedRows[y][w] = rows[y][w] ^ (maskRow[w] & dataRows[y][w]);
+      }
+    }
+    mask = maskColumns[maskPattern];
+    for (int x = 0; x < dimension; x++) {
+      long[] maskColumn = mask[x % MASK_PERIOD];
+      for (int w = 0; w < words; w++) {
+        maskedColumns[x][w] = columns[x][w] ^ (maskColumn[w] & dataColumns[x][w]);
+      }
+    }
+    boolean[] dark = typeInfoDark[maskPattern];
+    for (int i = 0; i < dark.length; i++) {
+      if (dark[i]) {
+        setBit(maskedRows, maskedColumns, typeInfoX[i], typeInfoY[i]);
+      }
+    }
+    return MaskUtil.applyMaskPenaltyRule1(maskedRows, maskedColumns)
+        + MaskUtil.applyMaskPenaltyRule2(maskedRows, dimension)
+        + MaskUtil.applyMaskPenaltyRule3(maskedRows, maskedColumns)
+        + MaskUtil.applyMaskPenaltyRule4(maskedRows, dimension);
+  }
+
+  private long validBits(int w) {
+    int count = dimension - (w << 6);
+    return count >= 64 ? -1L : (1L << count) - 1;
+  }
+
+  private long[][] transpose(long[][] lines) {
+    long[][] result = new long[dimension][words];
+    for (int i = 0; i < dimension; i++) {
+      for (int w = 0; w < words; w++) {
+        for (long bits = lines[i][w]; bits != 0L; bits &= bits - 1) {
+          int j = (w << 6) + Long.numberOfTrailingZeros(bits);
+          result[j][i >> 6] |= 1L << i;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void setBit(long[][] rows, long[][] columns, int x, int y) {
+    rows[y][x >> 6] |= 1L << x;
+    columns[x][y >> 6] |= 1L << y;
+  }
+
+}
@@ -35,10 +35,15 @@ final class MaskUtil {
 
   /**
    * Apply mask penalty rule 1 and return the penalty. Find repetitive cells with the same color and
-   * give penalty to them. Example: 00000 or 11111.
+   * give penalty to them. Example: 00000 or 11111. Runs are counted down all columns at once, one
+   * row of bits at a time, then the same way across the rows.
+   *
+   * @param rows the symbol by row, bit x of row y in bit (x &amp; 63) of rows[y][x &gt;&gt; 6]
+   * @param columns the same symbol by column, bit y of column x in columns[x][y &gt;&gt; 6]
    */
-  static int applyMaskPenaltyRule1(ByteMatrix matrix) {
-    return applyMaskPenaltyRule1Internal(matrix, true) + applyMaskPenaltyRule1Internal(matrix, false);
+  static int applyMaskPenaltyRule1(long[][] rows, long[][] columns) {
+    return applyMaskPenaltyRule1Internal(rows, columns.length) +
+        applyMaskPenaltyRule1Internal(columns, rows.length);
   }
 
   /**
@@ -46,17 +51,20 @@ final class MaskUtil {
    * penalty to them. This is actually equivalent to the spec's rule, which is to find MxN blocks and give a
    * penalty proportional to (M-1)x(N-1), because this is the number of 2x2 blocks inside such a block.
    */
-  static int applyMaskPenaltyRule2(ByteMatrix matrix) {
+  static int applyMaskPenaltyRule2(long[][] rows, int width) {
     int penalty = 0;
-    byte[][] array = matrix.getArray();
-    int width = matrix.getWidth();
-    int height = matrix.getHeight();
-    for (int y = 0; y < height - 1; y++) {
-      for (int x = 0; x < width - 1; x++) {
-        int value = array[y][x];
-        if (value == array[y][x + 1] && value == array[y + 1][x] && value == array[y + 1][x + 1]) {
-          penalty++;
-        }
+    int words = rows[0].length;
+    long[] sameAsBelow = new long[words];
+    for (int y = 0; y < rows.length - 1; y++) {
+      long[] row = rows[y];
+      long[] below = rows[y + 1];
+      for (int w = 0; w < words; w++) {
+        sameAsBelow[w] = ~(row[w] ^ below[w]);
+      }
+      for (int w = 0; w < words; w++) {
+        // A block at x needs x and x + 1 the same as below, and x the same as x + 1
+        long blocks = sameAsBelow[w] & nextBits(sameAsBelow, w) & ~(row[w] ^ nextBits(row, w));
+        penalty += Long.bitCount(blocks & validBits(w, width - 1));
       }
     }
     return N2 * penalty;
@@ -67,79 +75,103 @@ final class MaskUtil {
    * starting with black, or 4:1:1:3:1:1 starting with white, and give penalty to them.  If we
    * find patterns like 000010111010000, we give penalty once.
    */
-  static int applyMaskPenaltyRule3(ByteMatrix matrix) {
-    int numPenalties = 0;
-    byte[][] array = matrix.getArray();
-    int width = matrix.getWidth();
-    int height = matrix.getHeight();
-    for (int y = 0; y < height; y++) {
-      for (int x = 0; x < width; x++) {
-        byte[] arrayY = array[y];  // We can at least optimize this access
-        if (x + 6 < width &&
-            arrayY[x] == 1 &&
-            arrayY[x +  1] == 0 &&
-            arrayY[x +  2] == 1 &&
-            arrayY[x +  3] == 1 &&
-            arrayY[x +  4] == 1 &&
-            arrayY[x +  5] == 0 &&
-            arrayY[x +  6] == 1 &&
-            (isWhiteHorizontal(arrayY, x - 4, x) || isWhiteHorizontal(arrayY, x + 7, x + 11))) {
-          numPenalties++;
-        }
-        if (y + 6 < height &&
-            array[y][x] == 1  &&
-            array[y +  1][x] == 0  &&
-            array[y +  2][x] == 1  &&
-            array[y +  3][x] == 1  &&
-            array[y +  4][x] == 1  &&
-            array[y +  5][x] == 0  &&
-            array[y +  6][x] == 1 &&
-            (isWhiteVertical(array, x, y - 4, y) || isWhiteVertical(array, x, y + 7, y + 11))) {
-          numPenalties++;
-        }
-      }
-    }
-    return numPenalties * N3;
+  static int applyMaskPenaltyRule3(long[][] rows, long[][] columns) {
+    return N3 * (applyMaskPenaltyRule3Internal(rows) + applyMaskPenaltyRule3Internal(columns));
   }
 
-  private static boolean isWhiteHorizontal(byte[] rowArray, int from, int to) {
-    for (int i = from; i < to; i++) {
-      if (i >= 0 && i < rowArray.length && rowArray[i] == 1) {
-        return false;
+  /**
+   * Apply mask penalty rule 4 and return the penalty. Calculate the ratio of dark cells and give
+   * penalty if the ratio is far from 50%. It gives 10 penalty for 5% distance.
+   */
+  static int applyMaskPenaltyRule4(long[][] rows, int width) {
+    int numDarkCells = 0;
+    for (long[] row : rows) {
+      for (long word : row) {
+        numDarkCells += Long.bitCount(word);
       }
     }
-    return true;
+    int numTotalCells = rows.length * width;
+    int fivePercentVariances = Math.abs(numDarkCells * 2 - numTotalCells) * 10 / numTotalCells;
+    return fivePercentVariances * N4;
   }
 
-  private static boolean isWhiteVertical(byte[][] array, int col, int from, int to) {
-    for (int i = from; i < to; i++) {
-      if (i >= 0 && i < array.length && array[i][col] == 1) {
-        return false;
+  /**
+   * Runs along the lines, for every bit position at once. A cell is in a run of at least k if it
+   * is the same as the cell before, which was in a run of at least k - 1. The fifth cell of a run
+   * costs N1 and each one after that 1 more.
+   */
+  private static int applyMaskPenaltyRule1Internal(long[][] lines, int lineLength) {
+    int words = lines[0].length;
+    long[] atLeast2 = new long[words];
+    long[] atLeast3 = new long[words];
+    long[] atLeast4 = new long[words];
+    long[] atLeast5 = new long[words];
+    int fifths = 0;
+    int longer = 0;
+    for (int i = 1; i < lines.length; i++) {
+      long[] line = lines[i];
+      long[] previous = lines[i - 1];
+      for (int w = 0; w < words; w++) {
+        long same = ~(line[w] ^ previous[w]) & validBits(w, lineLength);
+        long atLeast6 = same & atLeast5[w];
+        atLeast5[w] = same & atLeast4[w];
+        atLeast4[w] = same & atLeast3[w];
+        atLeast3[w] = same & atLeast2[w];
+        atLeast2[w] = same;
+        fifths += Long.bitCount(atLeast5[w] & ~atLeast6);
+        longer += Long.bitCount(atLeast6);
       }
     }
-    return true;
+    return N1 * fifths + longer;
   }
 
   /**
-   * Apply mask penalty rule 4 and return the penalty. Calculate the ratio of dark cells and give
-   * penalty if the ratio is far from 50%. It gives 10 penalty for 5% distance.
+   * Finds 1011101 starting on each line, for every bit position at once, with four light lines
+   * before or after it. Lines beyond the symbol count as light.
    */
-  static int applyMaskPenaltyRule4(ByteMatrix matrix) {
-    int numDarkCells = 0;
-    byte[][] array = matrix.getArray();
-    int width = matrix.getWidth();
-    int height = matrix.getHeight();
-    for (int y = 0; y < height; y++) {
-      byte[] arrayY = array[y];
-      for (int x = 0; x < width; x++) {
-        if (arrayY[x] == 1) {
-          numDarkCells++;
+  private static int applyMaskPenaltyRule3Internal(long[][] lines) {
+    int numPenalties = 0;
+    int words = lines[0].length;
+    for (int i = 0; i + 6 < lines.length; i++) {
+      for (int w = 0; w < words; w++) {
+        long pattern = lines[i][w] & ~lines[i + 1][w] & lines[i + 2][w] & lines[i + 3][w] &
+            lines[i + 4][w] & ~lines[i + 5][w] & lines[i + 6][w];
+        if (pattern != 0) {
+          long lightBefore = ~(word(lines, i - 4, w) | word(lines, i - 3, w) |
+              word(lines, i - 2, w) | word(lines, i - 1, w));
+          long lightAfter = ~(word(lines, i + 7, w) | word(lines, i + 8, w) |
+              word(lines, i + 9, w) | word(lines, i + 10, w));
+          numPenalties += Long.bitCount(pattern & (lightBefore | lightAfter));
         }
       }
     }
-    int numTotalCells = matrix.getHeight() * matrix.getWidth();
-    int fivePercentVariances = Math.abs(numDarkCells * 2 - numTotalCells) * 10 / numTotalCells;
-    return fivePercentVariances * N4;
+    return numPenalties;
+  }
+
+  private static long word(long[][] lines, int line, int w) {
+    return line >= 0 && line < lines.length ? lines[line][w] : 0L;
+  }
+
+  /**
+   * @return word w of the line shifted by one cell, so that each bit holds the next cell's
+   */
+  private static long nextBits(long[] line, int w) {
+    long next = line[w] >>> 1;
+    if (w + 1 < line.length) {
+      next |= line[w + 1] << 63;
+    }
+    return next;
+  }
+
+  /**
+   * @return the bits of word w which stand for cells before the given position
+   */
+  private static long validBits(int w, int end) {
+    int count = end - (w << 6);
+    if (count >= 64) {
+      return -1L;
+    }
+    return count <= 0 ? 0L : (1L << count) - 1;
   }
 
   /**
@@ -183,35 +215,4 @@ final class MaskUtil {
     return intermediate == 0;
   }
 
-  /**
-   * Helper function for applyMaskPenaltyRule1. We need this for doing this calculation in both
-   * vertical and horizontal orders respectively.
-   */
-  private static int applyMaskPenaltyRule1Internal(ByteMatrix matrix, boolean isHorizontal) {
-    int penalty = 0;
-    int iLimit = isHorizontal ? matrix.getHeight() : matrix.getWidth();
-    int jLimit = isHorizontal ? matrix.getWidth() : matrix.getHeight();
-    byte[][] array = matrix.getArray();
-    for (int i = 0; i < iLimit; i++) {
-      int numSameBitCells = 0;
-      int prevBit = -1;
-      for (int j = 0; j < jLimit; j++) {
-        int bit = isHorizontal ? array[i][j] : array[j][i];
-        if (bit == prevBit) {
-          numSameBitCells++;
-        } else {
-          if (numSameBitCells >= 5) {
-            penalty += N1 + (numSameBitCells - 5);
-          }
-          numSameBitCells = 1;  // Include the cell itself.
-          prevBit = bit;
-        }
-      }
-      if (numSameBitCells >= 5) {
-        penalty += N1 + (numSameBitCells - 5);
-      }
-    }
-    return penalty;
-  }
-
 }
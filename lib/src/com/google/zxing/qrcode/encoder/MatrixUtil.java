@@ -119,12 +119,9 @@ final class MatrixUtil {
   private static final int TYPE_INFO_POLY = 0x537;
   private static final int TYPE_INFO_MASK_PATTERN = 0x5412;
 
-  // Set all cells to -1.  -1 means that the cell is empty (not set yet).
-  //
-  // JAVAPORT: We shouldn't need to do this at all. The code should be rewritten to begin encoding
-  // with the ByteMatrix initialized all to zero.
-  static void clearMatrix(ByteMatrix matrix) {
-    matrix.clear((byte) -1);
+  // Make all cells light and empty. A cell is empty until a function pattern is set in it.
+  static void clearMatrix(ModuleMatrix matrix) {
+    matrix.clear();
   }
 
   // Build 2D matrix of QR Code from "dataBits" with "ecLevel", "version" and "getMaskPattern". On
@@ -133,7 +130,7 @@ final class MatrixUtil {
                           ErrorCorrectionLevel ecLevel,
                           Version version,
                           int maskPattern,
-                          ByteMatrix matrix) throws WriterException {
+                          ModuleMatrix matrix) throws WriterException {
     clearMatrix(matrix);
     embedBasicPatterns(version, matrix);
     // Type information appear with any version.
@@ -150,7 +147,7 @@ final class MatrixUtil {
   // - Timing patterns
   // - Dark dot at the left bottom corner
   // - Position adjustment patterns, if need be
-  static void embedBasicPatterns(Version version, ByteMatrix matrix) throws WriterException {
+  static void embedBasicPatterns(Version version, ModuleMatrix matrix) throws WriterException {
     // Let's get started with embedding big squares at corners.
     embedPositionDetectionPatternsAndSeparators(matrix);
     // Then, embed the dark dot at the left bottom corner.
@@ -163,7 +160,7 @@ final class MatrixUtil {
   }
 
   // Embed type information. On success, modify the matrix.
-  static void embedTypeInfo(ErrorCorrectionLevel ecLevel, int maskPattern, ByteMatrix matrix)
+  static void embedTypeInfo(ErrorCorrectionLevel ecLevel, int maskPattern, ModuleMatrix matrix)
       throws WriterException {
     BitArray typeInfoBits = new BitArray();
     makeTypeInfoBits(ecLevel, maskPattern, typeInfoBits);
@@ -176,25 +173,25 @@ final class MatrixUtil {
       // Type info bits at the left top corner. See 8.9 of JISX0510:2004 (p.46).
       int x1 = TYPE_INFO_COORDINATES[i][0];
       int y1 = TYPE_INFO_COORDINATES[i][1];
-      matrix.set(x1, y1, bit);
+      matrix.setFunction(x1, y1, bit);
 
       if (i < 8) {
         // Right top corner.
         int x2 = matrix.getWidth() - i - 1;
         int y2 = 8;
-        matrix.set(x2, y2, bit);
+        matrix.setFunction(x2, y2, bit);
       } else {
         // Left bottom corner.
         int x2 = 8;
         int y2 = matrix.getHeight() - 7 + (i - 8);
-        matrix.set(x2, y2, bit);
+        matrix.setFunction(x2, y2, bit);
       }
     }
   }
 
   // Embed version information if need be. On success, modify the matrix and return true.
   // See 8.10 of JISX0510:2004 (p.47) for how to embed version information.
-  static void maybeEmbedVersionInfo(Version version, ByteMatrix matrix) throws WriterException {
+  static void maybeEmbedVersionInfo(Version version, ModuleMatrix matrix) throws WriterException {
     if (version.getVersionNumber() < 7) {  // Version info is necessary if version >= 7.
       return;  // Don't need version info.
     }
@@ -208,9 +205,9 @@ final class MatrixUtil {
         boolean bit = versionInfoBits.get(bitIndex);
         bitIndex--;
         // Left bottom corner.
-        matrix.set(i, matrix.getHeight() - 11 + j, bit);
+        matrix.setFunction(i, matrix.getHeight() - 11 + j, bit);
         // Right bottom corner.
-        matrix.set(matrix.getHeight() - 11 + j, i, bit);
+        matrix.setFunction(matrix.getHeight() - 11 + j, i, bit);
       }
     }
   }
@@ -218,7 +215,7 @@ final class MatrixUtil {
   // Embed "dataBits" using "getMaskPattern". On success, modify the matrix and return true.
   // For debugging purposes, it skips masking process if "getMaskPattern" is -1.
   // See 8.7 of JISX0510:2004 (p.38) for how to embed data bits.
-  static void embedDataBits(BitArray dataBits, int maskPattern, ByteMatrix matrix)
+  static void embedDataBits(BitArray dataBits, int maskPattern, ModuleMatrix matrix)
       throws WriterException {
     int bitIndex = 0;
     int direction = -1;
@@ -234,7 +231,7 @@ final class MatrixUtil {
         for (int i = 0; i < 2; ++i) {
           int xx = x - i;
           // Skip the cell if it's not empty.
-          if (!isEmpty(matrix.get(xx, y))) {
+          if (matrix.isFunction(xx, y)) {
             continue;
           }
           boolean bit;
@@ -355,78 +352,73 @@ final class MatrixUtil {
     }
   }
 
-  // Check if "value" is empty.
-  private static boolean isEmpty(int value) {
-    return value == -1;
-  }
-
-  private static void embedTimingPatterns(ByteMatrix matrix) {
+  private static void embedTimingPatterns(ModuleMatrix matrix) {
     // -8 is for skipping position detection patterns (size 7), and two horizontal/vertical
     // separation patterns (size 1). Thus, 8 = 7 + 1.
     for (int i = 8; i < matrix.getWidth() - 8; ++i) {
-      int bit = (i + 1) % 2;
+      boolean bit = (i + 1) % 2 == 1;
       // Horizontal line.
-      if (isEmpty(matrix.get(i, 6))) {
-        matrix.set(i, 6, bit);
+      if (!matrix.isFunction(i, 6)) {
+        matrix.setFunction(i, 6, bit);
       }
       // Vertical line.
-      if (isEmpty(matrix.get(6, i))) {
-        matrix.set(6, i, bit);
+      if (!matrix.isFunction(6, i)) {
+        matrix.setFunction(6, i, bit);
       }
     }
   }
 
   // Embed the lonely dark dot at left bottom corner. JISX0510:2004 (p.46)
-  private static void embedDarkDotAtLeftBottomCorner(ByteMatrix matrix) throws WriterException {
-    if (matrix.get(8, matrix.getHeight() - 8) == 0) {
+  private static void embedDarkDotAtLeftBottomCorner(ModuleMatrix matrix) throws WriterException {
+    if (matrix.isFunction(8, matrix.getHeight() - 8) && !matrix.get(8, matrix.getHeight() - 8)) {
       throw new WriterException();
     }
-    matrix.set(8, matrix.getHeight() - 8, 1);
+    matrix.setFunction(8, matrix.getHeight() - 8, true);
   }
 
   private static void embedHorizontalSeparationPattern(int xStart,
                                                        int yStart,
-                                                       ByteMatrix matrix) throws WriterException {
+                                                       ModuleMatrix matrix) throws WriterException {
     for (int x = 0; x < 8; ++x) {
-      if (!isEmpty(matrix.get(xStart + x, yStart))) {
+      if (matrix.isFunction(xStart + x, yStart)) {
         throw new WriterException();
       }
-      matrix.set(xStart + x, yStart, 0);
+      matrix.setFunction(xStart + x, yStart, false);
     }
   }
 
   private static void embedVerticalSeparationPattern(int xStart,
                                                      int yStart,
-                                                     ByteMatrix matrix) throws WriterException {
+                                                     ModuleMatrix matrix) throws WriterException {
     for (int y = 0; y < 7; ++y) {
-      if (!isEmpty(matrix.get(xStart, yStart + y))) {
+      if (matrix.isFunction(xStart, yStart + y)) {
         throw new WriterException();
       }
-      matrix.set(xStart, yStart + y, 0);
+      matrix.setFunction(xStart, yStart + y, false);
     }
   }
 
   // Note that we cannot unify the function with embedPositionDetectionPattern() despite they are
   // almost identical, since we cannot write a function that takes 2D arrays in different sizes in
   // C/C++. We should live with the fact.
-  private static void embedPositionAdjustmentPattern(int xStart, int yStart, ByteMatrix matrix) {
+  private static void embedPositionAdjustmentPattern(int xStart, int yStart, ModuleMatrix matrix) {
     for (int y = 0; y < 5; ++y) {
       for (int x = 0; x < 5; ++x) {
-        matrix.set(xStart + x, yStart + y, POSITION_ADJUSTMENT_PATTERN[y][x]);
+        matrix.setFunction(xStart + x, yStart + y, POSITION_ADJUSTMENT_PATTERN[y][x] == 1);
       }
     }
   }
 
-  private static void embedPositionDetectionPattern(int xStart, int yStart, ByteMatrix matrix) {
+  private static void embedPositionDetectionPattern(int xStart, int yStart, ModuleMatrix matrix) {
     for (int y = 0; y < 7; ++y) {
       for (int x = 0; x < 7; ++x) {
-        matrix.set(xStart + x, yStart + y, POSITION_DETECTION_PATTERN[y][x]);
+        matrix.setFunction(xStart + x, yStart + y, POSITION_DETECTION_PATTERN[y][x] == 1);
       }
     }
   }
 
   // Embed position detection patterns and surrounding vertical/horizontal separators.
-  private static void embedPositionDetectionPatternsAndSeparators(ByteMatrix matrix) throws WriterException {
+  private static void embedPositionDetectionPatternsAndSeparators(ModuleMatrix matrix) throws WriterException {
     // Embed three big squares at corners.
     int pdpWidth = POSITION_DETECTION_PATTERN[0].length;
     // Left top corner.
@@ -458,7 +450,7 @@ final class MatrixUtil {
   }
 
   // Embed position adjustment patterns if need be.
-  private static void maybeEmbedPositionAdjustmentPatterns(Version version, ByteMatrix matrix) {
+  private static void maybeEmbedPositionAdjustmentPatterns(Version version, ModuleMatrix matrix) {
     if (version.getVersionNumber() < 2) {  // The patterns appear if version >= 2
       return;
     }
@@ -473,7 +465,7 @@ final class MatrixUtil {
           continue;
         }
         // If the cell is unset, we embed the position adjustment pattern here.
-        if (isEmpty(matrix.get(x, y))) {
+        if (!matrix.isFunction(x, y)) {
           // -2 is necessary since the x/y coordinates point to the center of the pattern, not the
           // left top corner.
           embedPositionAdjustmentPattern(x - 2, y - 2, matrix);
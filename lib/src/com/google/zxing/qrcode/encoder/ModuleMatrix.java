@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.encoder;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * The modules of a symbol being encoded, as two bit planes: whether each module is dark, and
+ * whether it belongs to a function pattern (finder, separator, timing, alignment, format or
+ * version information) rather than to the data. Each row is packed into 64-bit words, bit x &amp;
+ * 63 of word x &gt;&gt; 6 standing for column x, so whole rows can be copied and compared at once.
+ */
+public final class ModuleMatrix {
+
+  private final int width;
+  private final int height;
+  private final int rowSize;
+  private final long[] dark;
+  private final long[] function;
+
+  public ModuleMatrix(int width, int height) {
+    this.width = width;
+    this.height = height;
+    rowSize = (width + 63) >> 6;
+    dark = new long[rowSize * height];
+    function = new long[rowSize * height];
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * @return true if the module at (x,y) is dark
+   */
+  public boolean get(int x, int y) {
+    return ((dark[y * rowSize + (x >> 6)] >>> x) & 1L) != 0;
+  }
+
+  /**
+   * @return true if the module at (x,y) has been set by {@link #setFunction(int, int, boolean)}
+   */
+  public boolean isFunction(int x, int y) {
+    return ((function[y * rowSize + (x >> 6)] >>> x) & 1L) != 0;
+  }
+
+  /**
+   * Sets a data module.
+   */
+  public void set(int x, int y, boolean value) {
+    int offset = y * rowSize + (x >> 6);
+    if (value) {
+      dark[offset] |= 1L << x;
+    } else {
+      dark[offset] &= ~(1L << x);
+    }
+  }
+
+  /**
+   * Sets a module of a function pattern, which data then skips.
+   */
+  public void setFunction(int x, int y, boolean value) {
+    set(x, y, value);
+    function[y * rowSize + (x >> 6)] |= 1L << x;
+  }
+
+  /**
+   * Makes every module light, and part of no function pattern.
+   */
+  public void clear() {
+    for (int i = 0; i < dark.length; i++) {
+      dark[i] = 0L;
+      function[i] = 0L;
+    }
+  }
+
+  /**
+   * @param y row to copy
+   * @param row receives the row's dark modules, packed as described above
+   */
+  void getRow(int y, long[] row) {
+    System.arraycopy(dark, y * rowSize, row, 0, rowSize);
+  }
+
+  /**
+   * @param y row to copy
+   * @param row receives which of the row's modules belong to function patterns
+   */
+  void getFunctionRow(int y, long[] row) {
+    System.arraycopy(function, y * rowSize, row, 0, rowSize);
+  }
+
+  /**
+   * @return the dark modules, one bit each, 32 at a time
+   */
+  public BitMatrix toBitMatrix() {
+    BitMatrix output = new BitMatrix(width, height);
+    for (int y = 0; y < height; y++) {
+      int offset = y * rowSize;
+      for (int w = 0; w < rowSize; w++) {
+        long word = dark[offset + w];
+        if (word != 0L) {
+          output.orBulk(w << 6, y, (int) word);
+          if ((w << 6) + 32 < width) {
+            output.orBulk((w << 6) + 32, y, (int) (word >>> 32));
+          }
+        }
+      }
+    }
+    return output;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(2 * width * height + 2);
+    for (int y = 0; y < height; ++y) {
+      for (int x = 0; x < width; ++x) {
+        result.append(get(x, y) ? " 1" : " 0");
+      }
+      result.append('\n');
+    }
+    return result.toString();
+  }
+
+}
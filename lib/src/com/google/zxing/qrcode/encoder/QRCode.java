@@ -32,7 +32,7 @@ public final class QRCode {
   private ErrorCorrectionLevel ecLevel;
   private Version version;
   private int maskPattern;
-  private ByteMatrix matrix;
+  private ModuleMatrix matrix;
 
   public QRCode() {
     maskPattern = -1;
@@ -54,7 +54,7 @@ public final class QRCode {
     return maskPattern;
   }
 
-  public ByteMatrix getMatrix() {
+  public ModuleMatrix getMatrix() {
     return matrix;
   }
 
@@ -96,7 +96,7 @@ public final class QRCode {
     maskPattern = value;
   }
 
-  public void setMatrix(ByteMatrix value) {
+  public void setMatrix(ModuleMatrix value) {
     matrix = value;
   }
 